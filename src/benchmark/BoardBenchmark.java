@@ -0,0 +1,588 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import model.Board;
+import model.GameEngine;
+import model.IPiece;
+import model.OPiece;
+import model.Piece;
+import model.TPiece;
+
+/**
+ * Measures the time and heap allocation of the game's hot paths on fixed fixtures.
+ * Each operation is run thousands of times in one timed loop over a batch of fixtures,
+ * and an empty operation measured the same way is subtracted as the cost of the loop.
+ * 
+ * The GameEngine benchmarks have an allocation budget in bytes per operation; moving,
+ * rotating and stepping the piece must allocate nothing. The run exits with a non-zero
+ * status if any of them allocates more than its budget. The same operations through a
+ * Board, which also notifies its observers, are reported for information only.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class BoardBenchmark {
+
+    /** The width of every fixture board. */
+    private static final int WIDTH = 10;
+
+    /** The height of every fixture board. */
+    private static final int HEIGHT = 20;
+
+    /** The column pieces spawn at on a fixture board. */
+    private static final int SPAWN_X = WIDTH / 2 - 2;
+
+    /** The leftmost column of an O piece at the spawn position. */
+    private static final int O_SPAWN_COLUMN = SPAWN_X + 1;
+
+    /** The number of O pieces in a layer two rows tall, leaving two columns open. */
+    private static final int O_PER_LAYER = 4;
+
+    /** The number of fixtures in a batch, run in a single timed loop. */
+    private static final int BATCH = 1000;
+
+    /** The number of batches played before measuring. */
+    private static final int WARMUP_BATCHES = 20;
+
+    /** The number of batches measured. */
+    private static final int MEASURED_BATCHES = 20;
+
+    /** The budget of a move, a rotation or a step that does not lock the piece. */
+    private static final int MOVE_BUDGET = 0;
+
+    /** The budget of an action that freezes a piece and spawns the next one. */
+    private static final int LOCK_BUDGET = 2048;
+
+    /** The budget of rendering the board as a string. */
+    private static final int STRING_BUDGET = 16384;
+
+    /** Nanoseconds per second, for allocation rates. */
+    private static final double NANOS = 1e9;
+
+    /** Bytes per megabyte, for allocation rates. */
+    private static final double MEGABYTE = 1024 * 1024;
+
+    /** The thread bean used to read the bytes allocated by this thread. */
+    private static final com.sun.management.ThreadMXBean THREADS =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BoardBenchmark() {
+        // do nothing
+    }
+
+    /**
+     * Runs every benchmark and prints a report.
+     * 
+     * @param theArgs ignored
+     */
+    public static void main(final String[] theArgs) {
+        System.out.println(String.format("%-34s %10s %10s %10s %12s %6s  %s", "benchmark",
+                                         "ns/op", "B/op", "budget", "MB/s", "gcs",
+                                         "result"));
+        final Benchmark empty = new Benchmark("baseline", Fixture.EMPTY, Target.ENGINE,
+                                              1, 0) {
+            @Override
+            int run(final Game theGame) {
+                return 0;
+            }
+        };
+        final long[] totals = empty.measure(new long[2]);
+        empty.report(totals);
+        // the cost of one empty batch, taken off every batch measured after it
+        final long[] baseline = {totals[0] / MEASURED_BATCHES,
+                                 totals[1] / MEASURED_BATCHES};
+        boolean passed = true;
+        for (final Benchmark benchmark : benchmarks()) {
+            passed &= benchmark.report(benchmark.measure(baseline));
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return every benchmark in the suite
+     */
+    private static List<Benchmark> benchmarks() {
+        final List<Benchmark> result = new ArrayList<>();
+        for (final Target target : Target.values()) {
+            for (final Fixture fixture : Fixture.values()) {
+                result.add(new Benchmark("moveLeft", fixture, target, 3, MOVE_BUDGET) {
+                    @Override
+                    int run(final Game theGame) {
+                        return theGame.moveLeft();
+                    }
+                });
+                result.add(new Benchmark("moveRight", fixture, target, 3, MOVE_BUDGET) {
+                    @Override
+                    int run(final Game theGame) {
+                        return theGame.moveRight();
+                    }
+                });
+                result.add(new Benchmark("rotateCW", fixture, target, 4, MOVE_BUDGET) {
+                    @Override
+                    int run(final Game theGame) {
+                        return theGame.rotateCW();
+                    }
+                });
+                result.add(new Benchmark("step", fixture, target, fixture.getFreeSteps(),
+                                         MOVE_BUDGET) {
+                    @Override
+                    int run(final Game theGame) {
+                        return theGame.step();
+                    }
+                });
+                result.add(new Benchmark("hardDrop", fixture, target, 1, LOCK_BUDGET) {
+                    @Override
+                    int run(final Game theGame) {
+                        return theGame.hardDrop();
+                    }
+                });
+                result.add(new Benchmark("toString", fixture, target, 1, STRING_BUDGET) {
+                    @Override
+                    int run(final Game theGame) {
+                        return theGame.toString().length();
+                    }
+                });
+            }
+            result.add(new Benchmark("clearLines", null, target, 1, LOCK_BUDGET) {
+                @Override
+                Game setUp() {
+                    return tetrisReady(getTarget());
+                }
+
+                @Override
+                int run(final Game theGame) {
+                    return theGame.hardDrop();
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Builds a board with layers of O pieces filling every column except the two on
+     * the right, then makes the given piece current.
+     * 
+     * @param theTarget the kind of game to build
+     * @param theLayers the number of layers, each two rows tall
+     * @param theActive the piece to make current
+     * @param theExtra pieces to play after the active piece
+     * @return the game
+     */
+    private static Game stackedBoard(final Target theTarget, final int theLayers,
+                                     final Piece theActive, final Piece... theExtra) {
+        final int stacked = theLayers * O_PER_LAYER;
+        final Deque<Piece> pieces = new ArrayDeque<>();
+        for (int i = 0; i < stacked; i++) {
+            pieces.add(new OPiece(SPAWN_X, HEIGHT));
+        }
+        pieces.add(theActive);
+        for (final Piece piece : theExtra) {
+            pieces.add(piece);
+        }
+        final Game board = theTarget.create(pieces);
+        for (int i = 0; i < stacked; i++) {
+            shift(board, (i % O_PER_LAYER) * 2 - O_SPAWN_COLUMN);
+            board.hardDrop();
+        }
+        return board;
+    }
+
+    /**
+     * Builds a board four rows deep with only the rightmost column open and a vertical
+     * I piece ready above it, so the next hard drop clears four lines.
+     * 
+     * @param theTarget the kind of game to build
+     * @return the game
+     */
+    private static Game tetrisReady(final Target theTarget) {
+        final Game board = stackedBoard(theTarget, 2, new IPiece(SPAWN_X, HEIGHT),
+                                        new IPiece(SPAWN_X, HEIGHT));
+        final int iColumn = SPAWN_X + 2; // column of a vertical I piece
+        board.rotateCW();
+        shift(board, WIDTH - 2 - iColumn);
+        board.hardDrop();
+        board.rotateCW();
+        shift(board, WIDTH - 1 - iColumn);
+        return board;
+    }
+
+    /**
+     * Moves the current piece horizontally.
+     * 
+     * @param theBoard the game
+     * @param theColumns the number of columns to move, negative to move left
+     */
+    private static void shift(final Game theBoard, final int theColumns) {
+        for (int i = 0; i < -theColumns; i++) {
+            theBoard.moveLeft();
+        }
+        for (int i = 0; i < theColumns; i++) {
+            theBoard.moveRight();
+        }
+    }
+
+    /**
+     * @return the number of garbage collections so far
+     */
+    private static long gcCount() {
+        long result = 0;
+        for (final GarbageCollectorMXBean bean : ManagementFactory
+                        .getGarbageCollectorMXBeans()) {
+            result += Math.max(0, bean.getCollectionCount());
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of bytes allocated by this thread so far
+     */
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The boards the benchmarks start from.
+     */
+    private enum Fixture {
+        /** An empty board. */
+        EMPTY(0, 16),
+        /** A board with its lower half filled. */
+        HALF_FULL(5, 8),
+        /** A board with two free rows. */
+        NEARLY_TOPPED_OUT(9, 1);
+
+        /** The number of O layers stacked on the board. */
+        private final int myLayers;
+
+        /** The number of steps the active piece can fall without freezing. */
+        private final int myFreeSteps;
+
+        /**
+         * Creates a fixture.
+         * 
+         * @param theLayers the number of O layers stacked on the board
+         * @param theFreeSteps the steps the active piece can fall without freezing
+         */
+        Fixture(final int theLayers, final int theFreeSteps) {
+            myLayers = theLayers;
+            myFreeSteps = theFreeSteps;
+        }
+
+        /**
+         * @return the number of steps the active piece can fall without freezing
+         */
+        int getFreeSteps() {
+            return myFreeSteps;
+        }
+
+        /**
+         * @param theTarget the kind of game to build
+         * @return a new game in this fixture's state with a T piece active
+         */
+        Game create(final Target theTarget) {
+            return stackedBoard(theTarget, myLayers, new TPiece(SPAWN_X, HEIGHT));
+        }
+    }
+
+    /**
+     * The layers of the game a benchmark runs against.
+     */
+    private enum Target {
+        /** The engine alone, which must not allocate while a piece moves. */
+        ENGINE(true) {
+            @Override
+            Game create(final Deque<Piece> thePieces) {
+                final GameEngine engine = new GameEngine(WIDTH, HEIGHT, thePieces);
+                return new Game() {
+                    @Override
+                    public int moveLeft() {
+                        return engine.moveLeft();
+                    }
+
+                    @Override
+                    public int moveRight() {
+                        return engine.moveRight();
+                    }
+
+                    @Override
+                    public int rotateCW() {
+                        return engine.rotateCW();
+                    }
+
+                    @Override
+                    public int step() {
+                        return engine.step();
+                    }
+
+                    @Override
+                    public int hardDrop() {
+                        return engine.hardDrop();
+                    }
+
+                    @Override
+                    public String toString() {
+                        return engine.toString();
+                    }
+                };
+            }
+        },
+        /** A board, which also notifies its observers; reported for information. */
+        BOARD(false) {
+            @Override
+            Game create(final Deque<Piece> thePieces) {
+                final Board board = new Board(WIDTH, HEIGHT, thePieces);
+                return new Game() {
+                    @Override
+                    public int moveLeft() {
+                        board.moveLeft();
+                        return 0;
+                    }
+
+                    @Override
+                    public int moveRight() {
+                        board.moveRight();
+                        return 0;
+                    }
+
+                    @Override
+                    public int rotateCW() {
+                        board.rotateCW();
+                        return 0;
+                    }
+
+                    @Override
+                    public int step() {
+                        board.step();
+                        return 0;
+                    }
+
+                    @Override
+                    public int hardDrop() {
+                        board.hardDrop();
+                        return 0;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return board.toString();
+                    }
+                };
+            }
+        };
+
+        /** Whether the benchmarks of this target are held to their budgets. */
+        private final boolean myChecked;
+
+        /**
+         * Creates a target.
+         * 
+         * @param theChecked whether the benchmarks are held to their budgets
+         */
+        Target(final boolean theChecked) {
+            myChecked = theChecked;
+        }
+
+        /**
+         * @return whether the benchmarks of this target are held to their budgets
+         */
+        boolean isChecked() {
+            return myChecked;
+        }
+
+        /**
+         * Creates a game of this kind on a fixture board.
+         * 
+         * @param thePieces the pieces to play
+         * @return the game
+         */
+        abstract Game create(Deque<Piece> thePieces);
+    }
+
+    /**
+     * The operations measured, on either layer of the game.
+     */
+    private interface Game {
+
+        /**
+         * @return the engine's result code, or 0 for a board
+         */
+        int moveLeft();
+
+        /**
+         * @return the engine's result code, or 0 for a board
+         */
+        int moveRight();
+
+        /**
+         * @return the engine's result code, or 0 for a board
+         */
+        int rotateCW();
+
+        /**
+         * @return the engine's result code, or 0 for a board
+         */
+        int step();
+
+        /**
+         * @return the engine's result code, or 0 for a board
+         */
+        int hardDrop();
+    }
+
+    /**
+     * A single benchmark: an operation repeated on fresh fixtures.
+     */
+    private abstract static class Benchmark {
+
+        /** The name of the benchmark. */
+        private final String myName;
+
+        /** The fixture to start from, or null if setUp is overridden. */
+        private final Fixture myFixture;
+
+        /** The layer of the game the operation runs against. */
+        private final Target myTarget;
+
+        /** The number of operations measured on each fixture. */
+        private final int myOperations;
+
+        /** The most bytes an operation may allocate. */
+        private final int myBudget;
+
+        /** The combined results of the operations, so they are not optimized away. */
+        private volatile long mySink;
+
+        /**
+         * Creates a benchmark.
+         * 
+         * @param theName the name of the operation
+         * @param theFixture the fixture to start from
+         * @param theTarget the layer of the game the operation runs against
+         * @param theOperations the number of operations measured on each fixture
+         * @param theBudget the most bytes an operation may allocate
+         */
+        Benchmark(final String theName, final Fixture theFixture, final Target theTarget,
+                  final int theOperations, final int theBudget) {
+            final String name = theTarget.name().toLowerCase() + " " + theName;
+            myName = theFixture == null ? name : name + " " + theFixture;
+            myFixture = theFixture;
+            myTarget = theTarget;
+            myOperations = theOperations;
+            myBudget = theBudget;
+        }
+
+        /**
+         * @return the layer of the game the operation runs against
+         */
+        Target getTarget() {
+            return myTarget;
+        }
+
+        /**
+         * @return a new game to run the operation on
+         */
+        Game setUp() {
+            return myFixture.create(myTarget);
+        }
+
+        /**
+         * Performs the measured operation once.
+         * 
+         * @param theGame the game to operate on
+         * @return a result of the operation, for the sink
+         */
+        abstract int run(Game theGame);
+
+        /**
+         * Warms up and measures the operation.
+         * 
+         * @param theBaseline the nanoseconds and bytes of an empty batch, to subtract
+         * @return the nanoseconds and bytes of the measured batches and the
+         *         collections during them
+         */
+        long[] measure(final long[] theBaseline) {
+            play(WARMUP_BATCHES, theBaseline);
+            final long gcs = gcCount();
+            final long[] result = play(MEASURED_BATCHES, theBaseline);
+            result[2] = gcCount() - gcs;
+            return result;
+        }
+
+        /**
+         * Prints a report line.
+         * 
+         * @param theTotals the nanoseconds and bytes of the measured batches and the
+         *            collections during them
+         * @return true if the benchmark stayed within its budget or is not checked
+         */
+        boolean report(final long[] theTotals) {
+            final long operations = (long) MEASURED_BATCHES * BATCH * myOperations;
+            final double nanos = theTotals[0] / (double) operations;
+            final double bytes = theTotals[1] / (double) operations;
+            final boolean passed = !myTarget.isChecked() || bytes <= myBudget;
+            final String result;
+            if (!myTarget.isChecked()) {
+                result = "info";
+            } else if (passed) {
+                result = "ok";
+            } else {
+                result = "OVER";
+            }
+            System.out.println(String.format("%-34s %10.1f %10.1f %10s %12.1f %6d  %s",
+                                             myName, nanos, bytes,
+                                             myTarget.isChecked() ? myBudget : "-",
+                                             bytes / nanos * NANOS / MEGABYTE,
+                                             theTotals[2], result));
+            return passed;
+        }
+
+        /**
+         * Runs the operations on the given number of batches of fixtures, timing each
+         * batch in a single loop and subtracting the cost of an empty batch.
+         * 
+         * @param theBatches the number of batches
+         * @param theBaseline the nanoseconds and bytes of an empty batch
+         * @return the nanoseconds and bytes spent in the operations, and a slot for the
+         *         collections
+         */
+        private long[] play(final int theBatches, final long[] theBaseline) {
+            final Game[] games = new Game[BATCH];
+            long nanos = 0;
+            long bytes = 0;
+            long sink = 0;
+            for (int batch = 0; batch < theBatches; batch++) {
+                for (int i = 0; i < BATCH; i++) {
+                    games[i] = setUp();
+                }
+                final long startBytes = allocatedBytes();
+                final long start = System.nanoTime();
+                for (int i = 0; i < BATCH; i++) {
+                    for (int op = 0; op < myOperations; op++) {
+                        sink += run(games[i]);
+                    }
+                }
+                final long end = System.nanoTime();
+                final long endBytes = allocatedBytes();
+                nanos += Math.max(0, end - start - theBaseline[0]);
+                bytes += Math.max(0, endBytes - startBytes - theBaseline[1]);
+            }
+            mySink = sink;
+            return new long[] {nanos, bytes, 0};
+        }
+    }
+}
@@ -12,48 +12,53 @@ package model;
  */
 public abstract class AbstractPiece implements Piece, Cloneable {
 
-    /**
-     * The number of blocks in a piece.
-     */
-    private static final int BLOCKS = 4;
-
     /** The x coordinate of this Piece. */
     private int myX;
 
     /** The y coordinate of this Piece. */
     private int myY;
 
-    /** The rotational states of this Piece. */
-    private int[][][] myRotations;
+    /** The shared shape of this Piece. */
+    private PieceKind myKind;
 
     /** The index of the current rotational state of this Piece. */
     private int myCurrentRotation;
 
-    /** The block type representing this piece. */
-    private final Block myBlock;
-
     /**
      * Creates a new piece at the given coordinates.
      * 
-     * @param theRotations the rotational states for this Piece.
+     * @param theKind the kind of piece, which holds its rotational states.
      * @param theX the initial x coordinate for this piece.
      * @param theY the initial y coordinate for this piece.
-     * @param theBlock the type of block.
-     */
-    protected AbstractPiece(final int[][][] theRotations, final int theX, final int theY,
-                            final Block theBlock) {
-        
-        // make a defensive copy of theRotations 3D array since arrays are mutable
-        myRotations = new int[theRotations.length][theRotations[0].length][];
-        for (int array2D = 0; array2D < theRotations.length; array2D++) {
-            for (int array1D = 0; array1D < theRotations[0].length; array1D++) {
-                myRotations[array2D][array1D] = theRotations[array2D][array1D].clone();
-            }
-        }
-        myCurrentRotation = 0;
+     */
+    protected AbstractPiece(final PieceKind theKind, final int theX, final int theY) {
+        reset(theKind, theX, theY, 0);
+    }
+
+    /**
+     * Turns this piece into a piece of the given kind, position and rotation, so that
+     * an existing object can stand for a new piece without allocating.
+     * 
+     * @param theKind the kind of piece
+     * @param theX the x coordinate
+     * @param theY the y coordinate
+     * @param theRotation the rotation index
+     */
+    final void reset(final PieceKind theKind, final int theX, final int theY,
+                     final int theRotation) {
+        myKind = theKind;
         myX = theX;
         myY = theY;
-        myBlock = theBlock;
+        myCurrentRotation = theRotation;
+    }
+
+    /**
+     * Turns this piece into a copy of another piece.
+     * 
+     * @param thePiece the piece to copy
+     */
+    final void reset(final AbstractPiece thePiece) {
+        reset(thePiece.myKind, thePiece.myX, thePiece.myY, thePiece.myCurrentRotation);
     }
 
     /**
@@ -80,14 +85,34 @@ public abstract class AbstractPiece implements Piece, Cloneable {
         myY--;
     }
 
+    /**
+     * Shifts the piece several spaces down at once.
+     * 
+     * @param theRows the number of spaces to shift
+     */
+    final void moveDown(final int theRows) {
+        myY -= theRows;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public final void rotateCW() {
-        if (myRotations.length > 1) {
-            myCurrentRotation = (myCurrentRotation + 1) % myRotations.length;
-        }
+        myCurrentRotation = myKind.turn(myCurrentRotation, 1);
+    }
+
+    /**
+     * Turns the piece to the given rotation and shifts it by a wall kick.
+     * 
+     * @param theRotation the new rotation index
+     * @param theDeltaX the horizontal shift
+     * @param theDeltaY the vertical shift
+     */
+    final void rotateTo(final int theRotation, final int theDeltaX, final int theDeltaY) {
+        myCurrentRotation = theRotation;
+        myX += theDeltaX;
+        myY += theDeltaY;
     }
 
     /**
@@ -96,7 +121,20 @@ public abstract class AbstractPiece implements Piece, Cloneable {
      * @return The coordinates of this piece's current rotation.
      */
     public final int[][] getRotation() {
-        return myRotations[myCurrentRotation].clone();
+        final int[][] result = new int[PieceKind.BLOCKS][2];
+
+        for (int i = 0; i < PieceKind.BLOCKS; i++) {
+            result[i][0] = myKind.getCellX(myCurrentRotation, i);
+            result[i][1] = myKind.getCellY(myCurrentRotation, i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the current rotational state of this Piece.
+     */
+    final int getRotationIndex() {
+        return myCurrentRotation;
     }
 
     /**
@@ -119,11 +157,11 @@ public abstract class AbstractPiece implements Piece, Cloneable {
      * @return the current state of this Piece translated to board coordinates.
      */
     public final int[][] getBoardCoordinates() {
-        final int[][] result = new int[BLOCKS][2];
+        final int[][] result = new int[PieceKind.BLOCKS][2];
 
-        for (int i = 0; i < BLOCKS; i++) {
-            result[i][0] = myRotations[myCurrentRotation][i][0] + myX;
-            result[i][1] = myRotations[myCurrentRotation][i][1] + myY;
+        for (int i = 0; i < PieceKind.BLOCKS; i++) {
+            result[i][0] = myKind.getCellX(myCurrentRotation, i) + myX;
+            result[i][1] = myKind.getCellY(myCurrentRotation, i) + myY;
         }
         return result;
     }
@@ -132,7 +170,14 @@ public abstract class AbstractPiece implements Piece, Cloneable {
      * @return the block type of this piece
      */
     public final Block getBlock() {
-        return myBlock;
+        return myKind.getBlock();
+    }
+
+    /**
+     * @return the kind of this piece
+     */
+    public final PieceKind getKind() {
+        return myKind;
     }
 
     /**
@@ -141,19 +186,8 @@ public abstract class AbstractPiece implements Piece, Cloneable {
     @Override
     public Piece clone() throws CloneNotSupportedException {
 
-        // clone this Piece
-        final Piece result = (Piece) super.clone();
-
-        // now separately clone the my_rotations 3D array since arrays are mutable
-        final int[][][] newArray3D = new int[myRotations.length][myRotations[0].length][];
-        for (int array2D = 0; array2D < myRotations.length; array2D++) {
-            for (int array1D = 0; array1D < myRotations[0].length; array1D++) {
-                newArray3D[array2D][array1D] = myRotations[array2D][array1D].clone();
-            }
-        }
-        ((AbstractPiece) result).myRotations = newArray3D;
-
-        return result;
+        // the rotational states belong to the immutable kind, so a shallow copy suffices
+        return (Piece) super.clone();
     }
 
     /**
@@ -170,9 +204,9 @@ public abstract class AbstractPiece implements Piece, Cloneable {
         for (int col = height; col >= 0; col--) {
             for (int row = 0; row < width; row++) {
                 boolean found = false;
-                for (int b = 0; b < BLOCKS; b++) {
-                    if (myRotations[myCurrentRotation][b][1] == col
-                        && myRotations[myCurrentRotation][b][0] == row) {
+                for (int b = 0; b < PieceKind.BLOCKS; b++) {
+                    if (myKind.getCellY(myCurrentRotation, b) == col
+                        && myKind.getCellX(myCurrentRotation, b) == row) {
                         // There is a block here, so print and move on
                         sb.append("[]");
                         found = true;
@@ -197,9 +231,9 @@ public abstract class AbstractPiece implements Piece, Cloneable {
      */
     private int determineHeight() {
         int result = 0;
-        for (int i = 0; i < BLOCKS; i++) {
-            if (myRotations[myCurrentRotation][i][1] > result) {
-                result = myRotations[myCurrentRotation][i][1];
+        for (int i = 0; i < PieceKind.BLOCKS; i++) {
+            if (myKind.getCellY(myCurrentRotation, i) > result) {
+                result = myKind.getCellY(myCurrentRotation, i);
             }
         }
         return result + 1;
@@ -212,9 +246,9 @@ public abstract class AbstractPiece implements Piece, Cloneable {
      */
     private int determineWidth() {
         int result = 0;
-        for (int i = 0; i < BLOCKS; i++) {
-            if (myRotations[myCurrentRotation][i][0] > result) {
-                result = myRotations[myCurrentRotation][i][0];
+        for (int i = 0; i < PieceKind.BLOCKS; i++) {
+            if (myKind.getCellX(myCurrentRotation, i) > result) {
+                result = myKind.getCellX(myCurrentRotation, i);
             }
         }
         return result + 1;
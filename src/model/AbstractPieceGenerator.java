@@ -0,0 +1,107 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import java.util.Random;
+
+/**
+ * Provides the queue of upcoming pieces for PieceGenerators. Block ordinals are
+ * generated ahead of time into a primitive ring buffer, so next() and peek() only
+ * read an array.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public abstract class AbstractPieceGenerator implements PieceGenerator {
+
+    /** The number of upcoming pieces kept in the queue; a power of two. */
+    private static final int LOOKAHEAD = 8;
+
+    /** The cached values of Block to avoid cloning the array on lookups. */
+    private static final Block[] BLOCKS = Block.values();
+
+    /** The random number generator for this generator alone. */
+    private final Random myRandom;
+
+    /** The ring buffer of upcoming Block ordinals. */
+    private final byte[] myQueue = new byte[LOOKAHEAD];
+
+    /** The index of the next piece in the ring buffer. */
+    private int myHead;
+
+    /** Whether the ring buffer has been filled. */
+    private boolean myFilled;
+
+    /**
+     * Creates a generator whose sequence is determined by the given seed.
+     * 
+     * @param theSeed the seed
+     */
+    protected AbstractPieceGenerator(final long theSeed) {
+        myRandom = new Random(theSeed);
+    }
+
+    /**
+     * Chooses the block type of the piece after every piece in the queue.
+     * 
+     * @return the ordinal of a Block other than EMPTY
+     */
+    protected abstract int generate();
+
+    /**
+     * Returns a random number from this generator's own random sequence.
+     * 
+     * @param theBound the exclusive upper bound
+     * @return a number from 0 up to but not including theBound
+     */
+    protected final int nextInt(final int theBound) {
+        return myRandom.nextInt(theBound);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Block next() {
+        fill();
+        final Block result = BLOCKS[myQueue[myHead]];
+        myQueue[myHead] = (byte) generate();
+        myHead = (myHead + 1) & (LOOKAHEAD - 1);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Block peek(final int theIndex) {
+        if (theIndex < 0 || theIndex >= LOOKAHEAD) {
+            throw new IndexOutOfBoundsException();
+        }
+        fill();
+        return BLOCKS[myQueue[(myHead + theIndex) & (LOOKAHEAD - 1)]];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final int getLookahead() {
+        return LOOKAHEAD;
+    }
+
+    /**
+     * Fills the queue the first time it is used. This is not done in the constructor
+     * because the subclass has not been initialized yet.
+     */
+    private void fill() {
+        if (!myFilled) {
+            for (int i = 0; i < LOOKAHEAD; i++) {
+                myQueue[i] = (byte) generate();
+            }
+            myFilled = true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * Deals the piece types from a shuffled bag holding one of each; when the bag is empty
+ * it is refilled and shuffled again. No type can be missing for more than twelve pieces.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class BagGenerator extends AbstractPieceGenerator {
+
+    /** The bag of Block ordinals, one for each type except EMPTY. */
+    private final byte[] myBag = new byte[Block.values().length - 1];
+
+    /** The number of ordinals dealt from the bag since it was last shuffled. */
+    private int myDealt = myBag.length;
+
+    /**
+     * Creates a 7-bag generator.
+     * 
+     * @param theSeed the seed
+     */
+    public BagGenerator(final long theSeed) {
+        super(theSeed);
+        for (int i = 0; i < myBag.length; i++) {
+            myBag[i] = (byte) (Block.EMPTY.ordinal() + 1 + i);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int generate() {
+        if (myDealt == myBag.length) {
+            // Fisher-Yates shuffle
+            for (int i = myBag.length - 1; i > 0; i--) {
+                final int j = nextInt(i + 1);
+                final byte swap = myBag[i];
+                myBag[i] = myBag[j];
+                myBag[j] = swap;
+            }
+            myDealt = 0;
+        }
+        return myBag[myDealt++];
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Storage for the frozen blocks of a Tetris board. Each row keeps an occupancy bitmask
+ * of one long per 64 columns (bit x of a row is set when column x is filled) and a
+ * count of its filled cells, alongside a separate color plane holding the Block
+ * ordinal of every cell. Collision checks are reduced to bitwise ANDs and a full row
+ * is detected with a single compare.
+ *
+ * Only the rows up to the highest frozen block are stored, so the memory used grows
+ * with the height of the stack rather than the height of the board.
+ * 
+ * Rows of the color plane handed out by shareRows() are never written again; a row
+ * that is changed afterwards is copied first.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class BitBoard {
+
+    /** The widest board that can be stored. */
+    static final int MAX_WIDTH = 1024;
+
+    /** The base 2 logarithm of the number of columns in one word of a row mask. */
+    private static final int WORD_SHIFT = 6;
+
+    /** The mask of a column's bit index within its word. */
+    private static final int WORD_MASK = Long.SIZE - 1;
+
+    /** The number of rows allocated when the storage is first created. */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /** The ordinal stored in the color plane for an empty cell. */
+    private static final byte EMPTY = (byte) Block.EMPTY.ordinal();
+
+    /** The cached values of Block to avoid cloning the array on lookups. */
+    private static final Block[] BLOCKS = Block.values();
+
+    /** The width of the board in cells. */
+    private int myWidth;
+
+    /** The number of words in the occupancy bitmask of a row. */
+    private int myWords;
+
+    /** The occupancy bitmask words of each row, from the bottom up, a row at a time. */
+    private long[] myMasks;
+
+    /** The number of occupied cells in each row. */
+    private int[] myCounts;
+
+    /** The Block ordinal of each cell, indexed by row then column. */
+    private byte[][] myColors;
+
+    /** The number of rows currently holding frozen blocks. */
+    private int myRowCount;
+
+    /** The height of each column: one more than the row of its highest block. */
+    private int[] myHeights = new int[0];
+
+    /** The epoch in which each row of the color plane was created or copied. */
+    private long[] myRowEpochs;
+
+    /** The current epoch; it advances every time the rows are shared. */
+    private long myEpoch;
+
+    /** The rows last handed out by shareRows(), or null if any row has changed since. */
+    private byte[][] myShared;
+
+    /**
+     * Creates empty storage for a board of the given width.
+     *
+     * @param theWidth the number of columns
+     */
+    BitBoard(final int theWidth) {
+        reset(theWidth);
+    }
+
+    /**
+     * Removes every frozen block and changes the width of the board. The storage shrinks
+     * back to its initial size, so a tall stack from an earlier game is not kept alive.
+     *
+     * @param theWidth the number of columns
+     */
+    void reset(final int theWidth) {
+        if (theWidth < 1 || theWidth > MAX_WIDTH) {
+            throw new IllegalArgumentException();
+        }
+        myWidth = theWidth;
+        myWords = (theWidth + WORD_MASK) >>> WORD_SHIFT;
+        myHeights = new int[theWidth];
+        myMasks = new long[INITIAL_CAPACITY * myWords];
+        myCounts = new int[INITIAL_CAPACITY];
+        myColors = new byte[INITIAL_CAPACITY][];
+        myRowEpochs = new long[INITIAL_CAPACITY];
+        myRowCount = 0;
+        myShared = null;
+    }
+
+    /**
+     * @return the number of columns
+     */
+    int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * @return the number of rows currently holding frozen blocks
+     */
+    int getRowCount() {
+        return myRowCount;
+    }
+
+    /**
+     * Returns the surface height of a column; blocks above it are all empty.
+     *
+     * @param theX the column
+     * @return one more than the row of the column's highest block, 0 if it has none
+     */
+    int getColumnHeight(final int theX) {
+        return myHeights[theX];
+    }
+
+    /**
+     * Returns whether the given cell holds a frozen block. The cell must be on the board.
+     *
+     * @param theX the column
+     * @param theY the row
+     * @return true if the cell is occupied
+     */
+    boolean isOccupied(final int theX, final int theY) {
+        return theY < myRowCount
+               && (myMasks[theY * myWords + (theX >>> WORD_SHIFT)] & (1L << theX)) != 0;
+    }
+
+    /**
+     * Returns the block at the given cell. The cell must be on the board.
+     *
+     * @param theX the column
+     * @param theY the row
+     * @return the block at the cell, EMPTY if there is none
+     */
+    Block getBlock(final int theX, final int theY) {
+        Block result = Block.EMPTY;
+        if (theY < myRowCount) {
+            result = BLOCKS[myColors[theY][theX]];
+        }
+        return result;
+    }
+
+    /**
+     * Copies a row of the color plane into the given array.
+     *
+     * @param theY the row
+     * @param theRow the array to fill, at least as long as the width
+     */
+    void copyRow(final int theY, final Block[] theRow) {
+        final byte[] colors = myColors[theY];
+        for (int x = 0; x < myWidth; x++) {
+            theRow[x] = BLOCKS[colors[x]];
+        }
+    }
+
+    /**
+     * Returns the rows of the color plane, from the bottom up, for a read-only snapshot.
+     * The returned rows are copied before they are next written. Until a row changes
+     * the same array is handed out again, so sharing the rows after a move copies
+     * nothing; the caller must not modify it.
+     *
+     * @return the color plane rows currently holding frozen blocks
+     */
+    byte[][] shareRows() {
+        if (myShared == null) {
+            myEpoch++;
+            myShared = Arrays.copyOf(myColors, myRowCount);
+        }
+        return myShared;
+    }
+
+    /**
+     * Returns whether a piece's row masks, translated to the given position, overlap
+     * any frozen block. Rows whose mask is empty are ignored, so the caller only needs
+     * to keep the occupied rows of the piece on the board.
+     *
+     * @param theRowMasks the row masks of the piece, from the bottom up
+     * @param theX the column of the piece's origin
+     * @param theY the row of the piece's origin
+     * @return true if the piece overlaps a frozen block
+     */
+    boolean intersects(final int[] theRowMasks, final int theX, final int theY) {
+        boolean result = false;
+        for (int row = 0; row < theRowMasks.length && !result; row++) {
+            final int y = theY + row;
+            if (theRowMasks[row] != 0 && y < myRowCount) {
+                final int base = y * myWords;
+                if (theX < 0) {
+                    result = (myMasks[base] & ((long) theRowMasks[row] >>> -theX)) != 0;
+                } else {
+                    final int word = theX >>> WORD_SHIFT;
+                    final int offset = theX & WORD_MASK;
+                    result = (myMasks[base + word] & ((long) theRowMasks[row] << offset)) != 0
+                             || offset != 0 && word + 1 < myWords
+                                && (myMasks[base + word + 1]
+                                    & ((long) theRowMasks[row] >>> Long.SIZE - offset)) != 0;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores a piece's row masks, translated to the given position, as frozen blocks.
+     *
+     * @param theRowMasks the row masks of the piece, from the bottom up
+     * @param theX the column of the piece's origin
+     * @param theY the row of the piece's origin
+     * @param theBlock the block type to store
+     */
+    void place(final int[] theRowMasks, final int theX, final int theY,
+               final Block theBlock) {
+        final byte color = (byte) theBlock.ordinal();
+        myShared = null;
+        for (int row = 0; row < theRowMasks.length; row++) {
+            if (theRowMasks[row] != 0) {
+                final int y = theY + row;
+                while (y >= myRowCount) {
+                    addRow();
+                }
+                final byte[] colors = writableRow(y);
+                if (theX < 0) {
+                    placeWord(y, 0, (long) theRowMasks[row] >>> -theX, colors, color);
+                } else {
+                    final int word = theX >>> WORD_SHIFT;
+                    final int offset = theX & WORD_MASK;
+                    placeWord(y, word, (long) theRowMasks[row] << offset, colors, color);
+                    if (offset != 0 && word + 1 < myWords) {
+                        placeWord(y, word + 1, (long) theRowMasks[row] >>> Long.SIZE - offset,
+                                  colors, color);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the blocks of one word of a row.
+     *
+     * @param theY the row
+     * @param theWord the index of the word within the row
+     * @param theBits the columns to fill, relative to the start of the word
+     * @param theColors the writable color plane row
+     * @param theColor the block ordinal to store
+     */
+    private void placeWord(final int theY, final int theWord, final long theBits,
+                           final byte[] theColors, final byte theColor) {
+        final int index = theY * myWords + theWord;
+        long bits = theBits & ~myMasks[index];
+        myMasks[index] |= bits;
+        myCounts[theY] += Long.bitCount(bits);
+        while (bits != 0) {
+            final int x = (theWord << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+            theColors[x] = theColor;
+            myHeights[x] = Math.max(myHeights[x], theY + 1);
+            bits &= bits - 1;
+        }
+    }
+
+    /**
+     * Returns whether every column of the given row is occupied.
+     *
+     * @param theY the row
+     * @return true if the row is full
+     */
+    boolean isRowFull(final int theY) {
+        return theY < myRowCount && myCounts[theY] == myWidth;
+    }
+
+    /**
+     * Removes a row, shifting every row above it down by one.
+     *
+     * @param theY the row to remove
+     */
+    void removeRow(final int theY) {
+        final int above = myRowCount - theY - 1;
+        myShared = null;
+        System.arraycopy(myMasks, (theY + 1) * myWords, myMasks, theY * myWords,
+                         above * myWords);
+        System.arraycopy(myCounts, theY + 1, myCounts, theY, above);
+        System.arraycopy(myColors, theY + 1, myColors, theY, above);
+        System.arraycopy(myRowEpochs, theY + 1, myRowEpochs, theY, above);
+        myRowCount--;
+        Arrays.fill(myMasks, myRowCount * myWords, (myRowCount + 1) * myWords, 0L);
+        myCounts[myRowCount] = 0;
+        myColors[myRowCount] = null;
+
+        // the row was full, so every column lost a block
+        for (int x = 0; x < myWidth; x++) {
+            if (myHeights[x] > theY + 1) {
+                myHeights[x]--;
+            } else {
+                // the removed block was the column's highest; find the one below it
+                int height = theY;
+                while (height > 0 && !isOccupied(x, height - 1)) {
+                    height--;
+                }
+                myHeights[x] = height;
+            }
+        }
+    }
+
+    /**
+     * Returns a row of the color plane that may be written, copying it first if it
+     * has been shared since it was created.
+     *
+     * @param theY the row
+     * @return the row
+     */
+    private byte[] writableRow(final int theY) {
+        if (myRowEpochs[theY] != myEpoch) {
+            myColors[theY] = myColors[theY].clone();
+            myRowEpochs[theY] = myEpoch;
+        }
+        return myColors[theY];
+    }
+
+    /**
+     * Appends an empty row above the current frozen blocks.
+     */
+    private void addRow() {
+        if (myRowCount == myCounts.length) {
+            myMasks = Arrays.copyOf(myMasks, myRowCount * 2 * myWords);
+            myCounts = Arrays.copyOf(myCounts, myRowCount * 2);
+            myColors = Arrays.copyOf(myColors, myRowCount * 2);
+            myRowEpochs = Arrays.copyOf(myRowEpochs, myRowCount * 2);
+        }
+        final byte[] row = new byte[myWidth];
+        Arrays.fill(row, EMPTY);
+        myColors[myRowCount] = row;
+        myRowEpochs[myRowCount] = myEpoch;
+        myRowCount++;
+    }
+}
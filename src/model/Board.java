@@ -4,15 +4,18 @@
 
 package model;
 
-import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Observable;
-import java.util.Random;
+import java.util.Observer;
 
 /**
- * A representation of a Tetris game board.
+ * A representation of a Tetris game board. The rules are played by a GameEngine;
+ * this class notifies its observers once for every action that changes the game,
+ * passing a BoardEvent describing the change. The observers are kept in an array that
+ * is replaced rather than changed, so notifying them allocates nothing and an action
+ * that only moves the piece allocates nothing at all.
  * 
  * @author Alan Fowler
  * @version Autumn 2014
@@ -26,76 +29,20 @@ public final class Board extends Observable {
     /** The height of a standard Tetris board. */
     private static final int DEFAULT_HEIGHT = 20;
 
-    /** The representation of the side walls of the board in string output. */
-    private static final String WALL = "|";
-
-    /** The representation of the board corners in string output. */
-    private static final String CORNER = "+";
-
-    /** The representation of the board floor in string output. */
-    private static final String FLOOR = "-";
-
-    /** The representation of an empty grid position in string output. */
-    private static final String EMPTY = " ";
-
-    /** The representation of a frozen block in string output. */
-    private static final String FROZEN = "X";
-
-    /** The representation of the current piece's position in string output. */
-    private static final String CURRENT_PIECE = "*";
-
-    /** The random number generator used for choosing new pieces. */
-    private static final Random RANDOM = new Random();
-
-    /** The minimum size of a board. */
-    private static final int MIN_SIZE = 5;
-
-    /** The number of rotations to return a piece to initial state. */
-    private static final int ROTATIONS = 4;
-
-    /** The number of extra rows above the board to display in String output. */
-    private static final int EXTRA_ROWS = 4;
-    
-    /** Represents the state when no current piece exists. */
-    private static final Piece NO_PIECE = null;
+    /** The observers of a board nobody observes. */
+    private static final Observer[] NO_OBSERVERS = new Observer[0];
 
     // instance fields
 
     /**
-     * The width of this Tetris board.
-     */
-    private int myWidth;
-
-    /**
-     * The height of this Tetris board.
-     */
-    private int myHeight;
-
-    /**
-     * The current frozen blocks on the board.
-     */
-    private final List<Block[]> myFrozenBlocks;
-
-    /**
-     * The piece currently being moved on the board.
+     * The engine playing the game on this board.
      */
-    private Piece myCurrentPiece;
+    private final GameEngine myEngine;
 
     /**
-     * The next piece to be used in the board.
+     * The observers, in the order they were added. The array is never modified.
      */
-    private Piece myNextPiece;
-
-    /**
-     * The predetermined queue of pieces to be fed into the board.
-     * This queue will be used repeatedly.
-     */
-    private Deque<Piece> myPieces;
-
-    /**
-     * The boolean representing the game state of Tetris.
-     */
-    private boolean myGameOver;
+    private volatile Observer[] myObservers = NO_OBSERVERS;
 
     /**
      * Constructs a Board using the specified dimensions and the specified sequence of pieces.
@@ -108,9 +55,22 @@ public final class Board extends Observable {
     public Board(final int theWidth, final int theHeight,
                  final Deque<Piece> thePieces) {
         super();
-        myPieces = new ArrayDeque<>();
-        myFrozenBlocks = new LinkedList<Block[]>();
-        newGame(theWidth, theHeight, thePieces);
+        myEngine = new GameEngine(theWidth, theHeight, thePieces);
+    }
+    
+    /**
+     * Constructs a Board using the specified dimensions and random pieces chosen by the
+     * given generator, which every game on this board keeps using.
+     * 
+     * @param theWidth the grid width to assign to this Tetris board
+     * @param theHeight the grid height to assign to this Tetris board
+     * @param theGenerator the generator for choosing pieces
+     * @see GeneratorType#create(long)
+     */
+    public Board(final int theWidth, final int theHeight,
+                 final PieceGenerator theGenerator) {
+        super();
+        myEngine = new GameEngine(theWidth, theHeight, theGenerator);
     }
     
     /**
@@ -120,14 +80,14 @@ public final class Board extends Observable {
      * @param theHeight the grid height to assign to this Tetris board
      */
     public Board(final int theWidth, final int theHeight) {
-        this(theWidth, theHeight, null);
+        this(theWidth, theHeight, (Deque<Piece>) null);
     }
 
     /**
      * Constructs a Board using default dimensions (10x20) and random pieces.
      */
     public Board() {
-        this(DEFAULT_WIDTH, DEFAULT_HEIGHT, null);
+        this(DEFAULT_WIDTH, DEFAULT_HEIGHT, (Deque<Piece>) null);
     }
 
     /**
@@ -141,50 +101,36 @@ public final class Board extends Observable {
     public void newGame(final int theWidth,
                         final int theHeight,
                         final Deque<Piece> thePieces) {
-        
-        if (theWidth < MIN_SIZE || theHeight < MIN_SIZE) {
-            throw new IllegalArgumentException();
-        }
-        
-        myWidth = theWidth;
-        myHeight = theHeight;
-        
-        if (thePieces == null) {
-            myPieces.clear();
-        } else {
-            myPieces = thePieces;
-        }
-        
-        myCurrentPiece = NO_PIECE;
-        myFrozenBlocks.clear();
-        myGameOver = false;
-        assignNextPiece();
-        assignCurrentPiece();
+        myEngine.newGame(theWidth, theHeight, thePieces);
         setChanged();
-        notifyObservers();
+        notifyObservers(BoardEvent.NEW_GAME);
     }
 
     /**
      * @return the width
      */
     public int getWidth() {
-        return myWidth;
+        return myEngine.getWidth();
     }
 
     /**
      * @return the height
      */
     public int getHeight() {
-        return myHeight;
+        return myEngine.getHeight();
     }
 
     /**
-     * Returns the current frozen blocks on the board.
+     * Returns the current frozen blocks on the board. Each row is copied as it is read;
+     * views that draw the board every frame should read getSnapshot() instead, which
+     * shares the rows without copying them.
      * 
      * @return the current frozen blocks on the board.
+     * @see GameEngine#getFrozenBlocks()
+     * @see #getSnapshot()
      */
     public List<Block[]> getFrozenBlocks() {
-        return myFrozenBlocks;
+        return myEngine.getFrozenBlocks();
     }
 
     /**
@@ -193,7 +139,7 @@ public final class Board extends Observable {
      * @return the current Piece being moved.
      */
     public Piece getCurrentPiece() {
-        return myCurrentPiece;
+        return myEngine.getCurrentPiece();
     }
     
     /**
@@ -202,7 +148,7 @@ public final class Board extends Observable {
      * @return the next piece to be used.
      */
     public Piece getNextPiece() {
-        return myNextPiece;
+        return myEngine.getNextPiece();
     }
 
     /**
@@ -211,371 +157,229 @@ public final class Board extends Observable {
      * @return Whether the game is over or not.
      */
     public boolean isGameOver() {
-        return myGameOver;
+        return myEngine.isGameOver();
+    }
+
+    /**
+     * Sets the scoring rule; it takes effect when the next game starts.
+     * 
+     * @param theRule the scoring rule
+     * @see GameEngine#setScoringRule(ScoringRule)
+     */
+    public void setScoringRule(final ScoringRule theRule) {
+        myEngine.setScoringRule(theRule);
+    }
+
+    /**
+     * Returns how many rows the current piece can fall before it lands.
+     * 
+     * @return the number of rows the current piece can move down
+     * @see GameEngine#getDropDistance()
+     */
+    public int getDropDistance() {
+        return myEngine.getDropDistance();
+    }
+
+    /**
+     * Returns an immutable snapshot of the current state of the board, which may be
+     * read from other threads without locking.
+     * 
+     * @return the snapshot
+     * @see GameEngine#getSnapshot()
+     */
+    public BoardSnapshot getSnapshot() {
+        return myEngine.getSnapshot();
+    }
+
+    /**
+     * Returns whether a piece of the given type and rotation fits at the given position.
+     * 
+     * @param theType the block type of the piece
+     * @param theRotation the rotation index of the piece
+     * @param theX the x coordinate of the piece
+     * @param theY the y coordinate of the piece
+     * @return true if the piece can be placed at the position; false otherwise
+     * @see GameEngine#canPlace(Block, int, int, int)
+     */
+    public boolean canPlace(final Block theType, final int theRotation,
+                            final int theX, final int theY) {
+        return myEngine.canPlace(theType, theRotation, theX, theY);
     }
 
     /**
      * Attempts to move the current piece to the left.
      */
     public void moveLeft() {
-        final int[][] blocks = ((AbstractPiece) myCurrentPiece).getBoardCoordinates();
-        boolean canPass = true;
-
-        // perform bounds checking on each block
-        for (int i = 0; i < blocks.length; i++) {
-            if (blocks[i][0] == 0 || // block is already at the left wall
-                blockAt(blocks[i][0] - 1, blocks[i][1]) != Block.EMPTY) {
-                // block to left is occupied
-                canPass = false;
-                break; // can't move, no need to keep checking
-            }
-        }
-
-        if (canPass) {
-            myCurrentPiece.moveLeft();
-            setChanged();
-            notifyObservers();
-        }
+        notifyResult(myEngine.moveLeft());
     }
 
     /**
      * Attempts to move the current piece to the right.
      */
     public void moveRight() {
-        final int[][] blocks = ((AbstractPiece) myCurrentPiece).getBoardCoordinates();
-        boolean canPass = true;
-
-        // perform bounds checking on each block
-        for (int i = 0; i < blocks.length; i++) {
-            if (blocks[i][0] == myWidth - 1 || // block is already at the right wall
-                blockAt(blocks[i][0] + 1, blocks[i][1]) != Block.EMPTY) {
-                // block to right is occupied
-                canPass = false;
-                break; // can't move, no need to keep checking
-            }
-        }
-
-        if (canPass) {
-            myCurrentPiece.moveRight();
-            setChanged();
-            notifyObservers();
-        }
+        notifyResult(myEngine.moveRight());
     }
 
     /**
      * Attempts to move the current piece down.
      */
     public void moveDown() {
-
-        if (isMoveDownLegal()) {
-            myCurrentPiece.moveDown();
-            setChanged();
-            notifyObservers();
-        } else {
-            freeze(); // this will notify observers
-        }
-    }
-    
-    /**
-     * Performs bound checking to determine if the current piece can move down.
-     * 
-     * @return true if it possible to move this piece down; false otherwise
-     */
-    private boolean isMoveDownLegal() {
-        boolean canPass = true;
-        final int[][] blocks = ((AbstractPiece) myCurrentPiece).getBoardCoordinates();
-        
-        // perform bounds checking on each block
-        for (int i = 0; i < blocks.length; i++) {
-            // Is this block at the bottom, or is there a piece below it?
-            if (blocks[i][1] == 0 || // block is at the bottom
-                blockAt(blocks[i][0], blocks[i][1] - 1) != Block.EMPTY) {
-                // block below is occupied
-                canPass = false;
-                break; // can't move, no need to keep checking
-            }
-        }
-        
-        return canPass;
+        notifyResult(myEngine.moveDown());
     }
 
     /**
      * Drops the current Piece all the way down.
      */
     public void hardDrop() {
-        while (isMoveDownLegal()) {
-            myCurrentPiece.moveDown();
-        }
-        freeze(); // this will notify observers
+        notifyResult(myEngine.hardDrop());
     }
 
     /**
      * Attempts to rotate the current piece clockwise.
      */
     public void rotateCW() {
-        myCurrentPiece.rotateCW();
-        final int[][] blocks = ((AbstractPiece) myCurrentPiece).getBoardCoordinates();
-        boolean canPass = true;
-
-        for (final int[] dimension : blocks) {
-            if (dimension[0] >= myWidth
-                    || blockAt(dimension[0], dimension[1]) != Block.EMPTY) {
-
-                for (int i = 1; i < ROTATIONS; i++) {
-                    myCurrentPiece.rotateCW();
-                }
-                canPass = false;
-                break;
-            }
-        }
-        if (canPass) {
-            setChanged();
-            notifyObservers();
-        }
+        notifyResult(myEngine.rotateCW());
     }
 
     /**
-     * Updates the game by one step.
+     * Attempts to rotate the current piece counterclockwise.
      */
-    public void step() {
-        moveDown();
+    public void rotateCCW() {
+        notifyResult(myEngine.rotateCCW());
     }
 
-
+    /**
+     * Attempts to rotate the current piece a half turn.
+     */
+    public void rotate180() {
+        notifyResult(myEngine.rotate180());
+    }
 
     /**
-     * Initializes the current piece.
+     * Drops the current piece by up to the given number of rows without freezing it.
+     * 
+     * @param theRows the number of rows to drop, 1 or more
+     * @see GameEngine#softDrop(int)
      */
-    private void assignCurrentPiece() {
-        myCurrentPiece = myNextPiece;
-        assignNextPiece();
+    public void softDrop(final int theRows) {
+        notifyResult(myEngine.softDrop(theRows));
     }
 
     /**
-     * Sets the next piece.
+     * Updates the game by one step.
      */
-    private void assignNextPiece() {
-        if (myPieces == null || myPieces.isEmpty()) {
-            myNextPiece = randomPiece(myWidth / 2 - 2, myHeight);
-        } else {
-            myNextPiece = myPieces.removeFirst();
-            try {
-                myPieces.addLast(((AbstractPiece) myNextPiece).clone());
-            } catch (final CloneNotSupportedException e) {
-                e.printStackTrace();
-            }
-        }
+    public void step() {
+        notifyResult(myEngine.step());
     }
 
     /**
-     * Creates a new piece randomly chosen from the possible pieces at the
-     * specified coordinates.
-     * 
-     * @param theX The x-coordinate
-     * @param theY The y-coordinate
+     * Updates the game by several rows of gravity at once.
      * 
-     * @return A randomly chosen piece
+     * @param theRows the number of rows to fall, 1 or more
+     * @see GameEngine#step(int)
      */
-    private Piece randomPiece(final int theX, final int theY) {
-        final Block[] blocks = Block.values();
-        Piece result;
-
-        switch (blocks[RANDOM.nextInt(blocks.length)]) {
-            case I:
-                result = new IPiece(theX, theY);
-                break;
-
-            case J:
-                result = new JPiece(theX, theY);
-                break;
-
-            case L:
-                result = new LPiece(theX, theY);
-                break;
-
-            case O:
-                result = new OPiece(theX, theY);
-                break;
-
-            case S:
-                result = new SPiece(theX, theY);
-                break;
-
-            case T:
-                result = new TPiece(theX, theY);
-                break;
-
-            case Z:
-                result = new ZPiece(theX, theY);
-                break;
-
-            default: // If EMPTY, recursively try again
-                result = randomPiece(theX, theY);
-                break;
-        }
-        return result;
+    public void step(final int theRows) {
+        notifyResult(myEngine.step(theRows));
     }
 
     /**
-     * Retrieves the block at the specified coordinates.
+     * Notifies the observers once if an engine result code reports a change.
      * 
-     * @param theX The x-coordinate
-     * @param theY The y-coordinate
-     * 
-     * @return The block at the specified coordinates, EMPTY if there is no
-     *         block at the specified coordinates, null if the specified
-     *         coordinates are outside of the board
-     */
-    private Block blockAt(final int theX, final int theY) {
-        Block result = null; // outside the board coordinates
-        if (theX < myWidth && theX >= 0 && theY >= 0) {
-            // inside the board
-            result = Block.EMPTY; // blocks above the board are empty
-            if (theY < myFrozenBlocks.size()) {
-                result = myFrozenBlocks.get(theY)[theX];
-            }
+     * @param theResult the result code returned by the engine
+     */
+    private void notifyResult(final int theResult) {
+        if (theResult != GameEngine.NONE) {
+            setChanged();
+            notifyObservers(BoardEvent.fromResult(theResult, myEngine));
         }
-        return result;
     }
 
     /**
-     * Evaluates if the current piece occupies the provided position.
+     * Returns a string that represents the current state of the board.
      * 
-     * @param theX The x-coordinate to examine
-     * @param theY The y-coordinate to examine
-     * @return true if the current piece occupies the position, false otherwise
+     * @return The string representation of the board
      */
-    private boolean currentPieceAt(final int theX, final int theY) {
-        boolean result = false;
-        final int[][] blocks = ((AbstractPiece) myCurrentPiece).getBoardCoordinates();
-
-        for (int block = 0; block < blocks.length; block++) {
-            if (blocks[block][1] == theY && blocks[block][0] == theX) {
-                result = true;
-            }
-        }
-        return result;
+    @Override
+    public String toString() {
+        return myEngine.toString();
     }
 
     /**
-     * The current piece cannot move down so add its blocks to the board.
+     * {@inheritDoc}
      */
-    private void freeze() {
-        final int[][] coordinates = ((AbstractPiece) myCurrentPiece).getBoardCoordinates();
-
-        for (int block = 0; block < coordinates.length; block++) {
-            final int x = coordinates[block][0];
-            final int y = coordinates[block][1];
-
-            // Add rows until this block can fit in one.
-            while (y >= myFrozenBlocks.size()) {
-                final Block[] newRow = new Block[myWidth];
-                for (int i = 0; i < myWidth; i++) {
-                    newRow[i] = Block.EMPTY;
-                }
-                myFrozenBlocks.add(newRow);
-            }
-            final Block[] row = myFrozenBlocks.get(y);
-            row[x] = ((AbstractPiece) myCurrentPiece).getBlock();
+    @Override
+    public synchronized void addObserver(final Observer theObserver) {
+        if (theObserver == null) {
+            throw new NullPointerException();
         }
-        
-        setChanged();
-        notifyObservers();
-        
-        clearLines(); // this may also notify observers
-        
-        if (myFrozenBlocks.size() > myHeight) {
-            myGameOver = true;
-        } else {
-            assignCurrentPiece();
+        if (indexOf(theObserver) < 0) {
+            final Observer[] observers = Arrays.copyOf(myObservers, myObservers.length + 1);
+            observers[observers.length - 1] = theObserver;
+            myObservers = observers;
         }
-        
-        setChanged();
-        notifyObservers();
     }
 
     /**
-     * Checks if there are any lines that need to be cleared
-     * and removes them from the board.
+     * {@inheritDoc}
      */
-    private void clearLines() {
-        for (int i = myFrozenBlocks.size() - 1; i >= 0; i--) {
-            boolean clear = true;
-            final Block[] blocks = myFrozenBlocks.get(i);
-
-            for (final Block block : blocks) {
-                if (block == Block.EMPTY) {
-                    clear = false;
-                    break;
-                }
-            }
-            if (clear) {
-                myFrozenBlocks.remove(i);
-                setChanged();
-                notifyObservers();
-            }
+    @Override
+    public synchronized void deleteObserver(final Observer theObserver) {
+        final int index = indexOf(theObserver);
+        if (index >= 0) {
+            final Observer[] observers = new Observer[myObservers.length - 1];
+            System.arraycopy(myObservers, 0, observers, 0, index);
+            System.arraycopy(myObservers, index + 1, observers, index,
+                             observers.length - index);
+            myObservers = observers;
         }
     }
 
     /**
-     * Returns a string that represents the current state of the board.
-     * 
-     * @return The string representation of the board
+     * {@inheritDoc}
      */
     @Override
-    public String toString() {
-        final StringBuilder sb = new StringBuilder();
+    public synchronized void deleteObservers() {
+        myObservers = NO_OBSERVERS;
+    }
 
-        for (int i = myHeight + EXTRA_ROWS - 1; i > myHeight - 1; i--) {
-            sb.append(EMPTY);
-            sb.append(getRowString(i));
-            sb.append('\n');
-        }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countObservers() {
+        return myObservers.length;
+    }
 
-        for (int i = myHeight - 1; i >= 0; i--) {
-            sb.append(WALL);
-            sb.append(getRowString(i));
-            sb.append(WALL);
-            sb.append('\n');
-        }
-        sb.append(CORNER);
-        for (int i = 0; i < myWidth; i++) {
-            sb.append(FLOOR);
+    /**
+     * Notifies the observers if the board has changed, the most recently added first
+     * as Observable does, without copying the observers.
+     * 
+     * @param theArg the event to pass to the observers
+     */
+    @Override
+    public void notifyObservers(final Object theArg) {
+        final Observer[] observers = myObservers;
+        if (hasChanged()) {
+            clearChanged();
+            for (int i = observers.length - 1; i >= 0; i--) {
+                observers[i].update(this, theArg);
+            }
         }
-        sb.append(CORNER);
-        return sb.toString();
     }
 
     /**
-     * Returns a string representing the blocks in the given row.
+     * Returns the position of an observer.
      * 
-     * @param theRow The row to represent
-     * @return The string representation
-     */
-    private String getRowString(final int theRow) {
-        final StringBuilder sb = new StringBuilder();
-
-        if (myFrozenBlocks.size() - 1 < theRow) {
-            for (int column = 0; column < myWidth; column++) {
-                if (currentPieceAt(column, theRow)) {
-                    sb.append(CURRENT_PIECE);
-                } else {
-                    sb.append(EMPTY);
-                }
-            }
-        } else {
-            final Block[] rowOfBlocks = myFrozenBlocks.get(theRow);
-
-            for (int column = 0; column < myWidth; column++) {
-                if (currentPieceAt(column, theRow)) {
-                    sb.append(CURRENT_PIECE);
-                } else if (rowOfBlocks[column] == Block.EMPTY) {
-                    sb.append(EMPTY);
-                } else {
-                    sb.append(FROZEN);
-                }
+     * @param theObserver the observer
+     * @return its index, or -1 if it is not observing the board
+     */
+    private int indexOf(final Observer theObserver) {
+        int result = -1;
+        for (int i = 0; i < myObservers.length && result < 0; i++) {
+            if (myObservers[i].equals(theObserver)) {
+                result = i;
             }
         }
-        return sb.toString();
+        return result;
     }
 }
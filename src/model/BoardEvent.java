@@ -0,0 +1,131 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * Describes everything that changed on a Board during one action. A Board passes a
+ * single BoardEvent to its observers per action, so a hard drop that clears lines
+ * reports the lock, the cleared rows and the new piece together.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class BoardEvent {
+
+    /** The event for an action that only moved or rotated the current piece. */
+    static final BoardEvent MOVED = new BoardEvent(GameEngine.MOVED, new int[0]);
+
+    /** The event for the start of a new game. */
+    static final BoardEvent NEW_GAME = new BoardEvent(GameEngine.SPAWNED, new int[0]);
+
+    /** The result flags reported by the engine. */
+    private final int myFlags;
+
+    /** The rows cleared, numbered as they were before any were removed. */
+    private final int[] myClearedRows;
+
+    /**
+     * Creates an event.
+     * 
+     * @param theFlags the result flags reported by the engine
+     * @param theClearedRows the rows cleared, from the top down
+     */
+    private BoardEvent(final int theFlags, final int[] theClearedRows) {
+        myFlags = theFlags;
+        myClearedRows = theClearedRows;
+    }
+
+    /**
+     * Creates the event for an engine result code.
+     * 
+     * @param theResult the result code of the action
+     * @param theEngine the engine that performed the action
+     * @return the event
+     */
+    static BoardEvent fromResult(final int theResult, final GameEngine theEngine) {
+        final BoardEvent result;
+        if (theResult == GameEngine.MOVED) {
+            result = MOVED;
+        } else {
+            final int[] rows = new int[GameEngine.linesCleared(theResult)];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = theEngine.getClearedRow(i);
+            }
+            result = new BoardEvent(theResult & ((1 << GameEngine.LINES_SHIFT) - 1), rows);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the current piece moved or rotated
+     */
+    public boolean isMoved() {
+        return (myFlags & GameEngine.MOVED) != 0;
+    }
+
+    /**
+     * @return true if a piece was frozen onto the board
+     */
+    public boolean isLocked() {
+        return (myFlags & GameEngine.LOCKED) != 0;
+    }
+
+    /**
+     * @return true if a new current piece entered the board
+     */
+    public boolean isSpawned() {
+        return (myFlags & GameEngine.SPAWNED) != 0;
+    }
+
+    /**
+     * @return true if the game ended
+     */
+    public boolean isGameOver() {
+        return (myFlags & GameEngine.GAME_OVER) != 0;
+    }
+
+    /**
+     * @return true if a new game started
+     */
+    public boolean isNewGame() {
+        return this == NEW_GAME;
+    }
+
+    /**
+     * @return the number of lines cleared
+     */
+    public int getLinesCleared() {
+        return myClearedRows.length;
+    }
+
+    /**
+     * Returns a row cleared during the action, numbered as it was before any rows were
+     * removed. Rows are listed from the top down.
+     * 
+     * @param theIndex the index of the cleared row, less than getLinesCleared()
+     * @return the row that was cleared
+     */
+    public int getClearedRow(final int theIndex) {
+        return myClearedRows[theIndex];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BoardEvent[");
+        if (isNewGame()) {
+            sb.append("new game");
+        } else {
+            sb.append("moved=").append(isMoved());
+            sb.append(", locked=").append(isLocked());
+            sb.append(", lines=").append(getLinesCleared());
+            sb.append(", spawned=").append(isSpawned());
+            sb.append(", gameOver=").append(isGameOver());
+        }
+        return sb.append(']').toString();
+    }
+}
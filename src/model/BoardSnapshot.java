@@ -0,0 +1,368 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import java.util.Arrays;
+
+/**
+ * An immutable copy of the state of a game at one moment, safe to read from any thread.
+ * Frozen rows are shared with the game rather than copied; the game copies a row
+ * before changing it, so a snapshot never sees a later change.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class BoardSnapshot {
+
+    /** The number of cells in a piece. */
+    public static final int PIECE_CELLS = 4;
+
+    /** The number of values that bound a block of cells: x, y, width and height. */
+    public static final int CELL_BOUNDS = 4;
+
+    /**
+     * The most blocks of changed cells between two snapshots: the frozen rows, and the
+     * current piece and where it would land in each snapshot.
+     */
+    private static final int MAX_CHANGES = 5;
+
+    /** The cached values of Block to avoid cloning the array on lookups. */
+    private static final Block[] BLOCKS = Block.values();
+
+    /** The version of the game this snapshot was taken from. */
+    private final long myVersion;
+
+    /** The width of the board. */
+    private final int myWidth;
+
+    /** The height of the board. */
+    private final int myHeight;
+
+    /** The Block ordinals of the frozen rows, from the bottom up. Never modified. */
+    private final byte[][] myRows;
+
+    /** The block type of the current piece. */
+    private final Block myPieceBlock;
+
+    /** The x and y coordinates of each cell of the current piece, in pairs. */
+    private final int[] myPieceCells;
+
+    /** How many rows the current piece can fall before it lands. */
+    private final int myDropDistance;
+
+    /** The block types of the upcoming pieces, next first. Shared, never modified. */
+    private final Block[] myPreview;
+
+    /** Whether the game is over. */
+    private final boolean myGameOver;
+
+    /** The score of the game. */
+    private final long myScore;
+
+    /** The level of the game. */
+    private final int myLevel;
+
+    /** The number of lines cleared in the game. */
+    private final int myLinesCleared;
+
+    /** The scoring rule of the game. */
+    private final ScoringRule myScoringRule;
+
+    /**
+     * Creates a snapshot.
+     * 
+     * @param theVersion the version of the game
+     * @param theWidth the width of the board
+     * @param theHeight the height of the board
+     * @param theRows the frozen rows, which must never be modified
+     * @param thePieceBlock the block type of the current piece
+     * @param thePieceCells the coordinates of the current piece's cells, in pairs
+     * @param theDropDistance how many rows the current piece can fall
+     * @param thePreview the block types of the upcoming pieces, next first, which must
+     *            never be modified
+     * @param theScore the score of the game
+     * @param theLevel the level of the game
+     * @param theLinesCleared the number of lines cleared in the game
+     * @param theScoringRule the scoring rule of the game
+     * @param theGameOver whether the game is over
+     */
+    BoardSnapshot(final long theVersion, final int theWidth, final int theHeight,
+                  final byte[][] theRows, final Block thePieceBlock,
+                  final int[] thePieceCells, final int theDropDistance,
+                  final Block[] thePreview, final long theScore, final int theLevel,
+                  final int theLinesCleared, final ScoringRule theScoringRule,
+                  final boolean theGameOver) {
+        myVersion = theVersion;
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myRows = theRows;
+        myPieceBlock = thePieceBlock;
+        myPieceCells = thePieceCells;
+        myDropDistance = theDropDistance;
+        myPreview = thePreview;
+        myGameOver = theGameOver;
+        myScore = theScore;
+        myLevel = theLevel;
+        myLinesCleared = theLinesCleared;
+        myScoringRule = theScoringRule;
+    }
+
+    /**
+     * @return the version of the game this snapshot was taken from
+     */
+    public long getVersion() {
+        return myVersion;
+    }
+
+    /**
+     * @return the width of the board
+     */
+    public int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * @return the height of the board
+     */
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * @return the number of rows holding frozen blocks
+     */
+    public int getRowCount() {
+        return myRows.length;
+    }
+
+    /**
+     * Returns the frozen block at the given cell.
+     * 
+     * @param theX the column
+     * @param theY the row
+     * @return the block at the cell, EMPTY if there is none
+     */
+    public Block getBlock(final int theX, final int theY) {
+        Block result = Block.EMPTY;
+        if (theY < myRows.length) {
+            result = BLOCKS[myRows[theY][theX]];
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a row is known to hold the same blocks in this snapshot as in
+     * another. A row is shared between snapshots until it changes, so this compares the
+     * rows themselves rather than their blocks; a row that is empty in both is the same.
+     * 
+     * @param theOther the other snapshot
+     * @param theY the row
+     * @return true if the row is unchanged, false if it may have changed
+     */
+    public boolean isRowShared(final BoardSnapshot theOther, final int theY) {
+        final byte[] row = theY < myRows.length ? myRows[theY] : null;
+        final byte[] other = theY < theOther.myRows.length ? theOther.myRows[theY] : null;
+        return row == other;
+    }
+
+    /**
+     * Returns the cells that differ between this snapshot and an earlier one, as
+     * blocks of cells with y counted up from the bottom row. The footprints of the
+     * current piece and of the place it would land are reported for both snapshots if
+     * the piece changed, and the frozen rows are reported from the lowest to the highest
+     * row that is not shared, which covers the rows shifted down by a clear.
+     * 
+     * @param thePrevious the earlier snapshot, or null to report the whole board
+     * @return the bounds of each block of changed cells as x, y, width and height,
+     *         CELL_BOUNDS values to a block; empty if nothing changed
+     */
+    public int[] getChangedCells(final BoardSnapshot thePrevious) {
+        final int[] result = new int[MAX_CHANGES * CELL_BOUNDS];
+        int count = 0;
+        if (thePrevious == null || thePrevious.myWidth != myWidth
+                        || thePrevious.myHeight != myHeight) {
+            count = addCells(result, count, 0, 0, myWidth,
+                             Math.max(myHeight, myRows.length));
+        } else if (thePrevious != this) {
+            int lowest = -1;
+            int highest = -1;
+            // the same rows are shared after a move, so there is nothing to compare
+            final int rows;
+            if (myRows == thePrevious.myRows) {
+                rows = 0;
+            } else {
+                rows = Math.max(myRows.length, thePrevious.myRows.length);
+            }
+            for (int y = 0; y < rows; y++) {
+                if (!isRowShared(thePrevious, y)) {
+                    if (lowest < 0) {
+                        lowest = y;
+                    }
+                    highest = y;
+                }
+            }
+            if (lowest >= 0) {
+                count = addCells(result, count, 0, lowest, myWidth, highest - lowest + 1);
+            }
+            if (myPieceBlock != thePrevious.myPieceBlock
+                            || myDropDistance != thePrevious.myDropDistance
+                            || !Arrays.equals(myPieceCells, thePrevious.myPieceCells)) {
+                count = thePrevious.addPieceCells(result, count);
+                count = addPieceCells(result, count);
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Adds the bounds of the current piece, and of where it would land, to an array.
+     * 
+     * @param theCells the bounds of the changed cells
+     * @param theCount the number of values in the array so far
+     * @return the number of values in the array after adding the piece
+     */
+    private int addPieceCells(final int[] theCells, final int theCount) {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < myPieceCells.length; i += 2) {
+            minX = Math.min(minX, myPieceCells[i]);
+            maxX = Math.max(maxX, myPieceCells[i]);
+            minY = Math.min(minY, myPieceCells[i + 1]);
+            maxY = Math.max(maxY, myPieceCells[i + 1]);
+        }
+        final int width = maxX - minX + 1;
+        final int height = maxY - minY + 1;
+        int result = addCells(theCells, theCount, minX, minY, width, height);
+        if (myDropDistance > 0) {
+            result = addCells(theCells, result, minX, minY - myDropDistance,
+                              width, height);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the bounds of a block of cells to an array.
+     * 
+     * @param theCells the bounds of the changed cells
+     * @param theCount the number of values in the array so far
+     * @param theX the leftmost column
+     * @param theY the lowest row
+     * @param theWidth the number of columns
+     * @param theHeight the number of rows
+     * @return the number of values in the array after adding the block
+     */
+    private static int addCells(final int[] theCells, final int theCount, final int theX,
+                                final int theY, final int theWidth, final int theHeight) {
+        theCells[theCount] = theX;
+        theCells[theCount + 1] = theY;
+        theCells[theCount + 2] = theWidth;
+        theCells[theCount + 3] = theHeight;
+        return theCount + CELL_BOUNDS;
+    }
+
+    /**
+     * @return the block type of the current piece
+     */
+    public Block getPieceBlock() {
+        return myPieceBlock;
+    }
+
+    /**
+     * @param theCell the index of a cell of the current piece, less than PIECE_CELLS
+     * @return the x coordinate of the cell
+     */
+    public int getPieceX(final int theCell) {
+        return myPieceCells[theCell * 2];
+    }
+
+    /**
+     * @param theCell the index of a cell of the current piece, less than PIECE_CELLS
+     * @return the y coordinate of the cell
+     */
+    public int getPieceY(final int theCell) {
+        return myPieceCells[theCell * 2 + 1];
+    }
+
+    /**
+     * @return how many rows the current piece can fall before it lands
+     */
+    public int getDropDistance() {
+        return myDropDistance;
+    }
+
+    /**
+     * @return the block type of the next piece
+     */
+    public Block getNextBlock() {
+        return myPreview[0];
+    }
+
+    /**
+     * @return the number of upcoming pieces this snapshot shows, at least 1
+     */
+    public int getPreviewCount() {
+        return myPreview.length;
+    }
+
+    /**
+     * Returns the block type of an upcoming piece.
+     * 
+     * @param theIndex how many pieces after the next piece, 0 for the next piece
+     * @return the block type of the upcoming piece
+     * @throws ArrayIndexOutOfBoundsException if theIndex is negative or not less than
+     *         getPreviewCount()
+     */
+    public Block getPreviewBlock(final int theIndex) {
+        return myPreview[theIndex];
+    }
+
+    /**
+     * Returns whether this snapshot shows the same upcoming pieces as another. The
+     * upcoming pieces are shared by every snapshot taken between two spawns.
+     * 
+     * @param theOther the other snapshot
+     * @return true if the upcoming pieces are known to be the same
+     */
+    public boolean isPreviewShared(final BoardSnapshot theOther) {
+        return myPreview == theOther.myPreview;
+    }
+
+    /**
+     * @return whether the game is over
+     */
+    public boolean isGameOver() {
+        return myGameOver;
+    }
+
+    /**
+     * @return the score of the game
+     */
+    public long getScore() {
+        return myScore;
+    }
+
+    /**
+     * @return the level of the game, 1 or more
+     */
+    public int getLevel() {
+        return myLevel;
+    }
+
+    /**
+     * @return the number of lines cleared in the game
+     */
+    public int getLinesCleared() {
+        return myLinesCleared;
+    }
+
+    /**
+     * @return the scoring rule of the game, which also sets how fast pieces fall
+     */
+    public ScoringRule getScoringRule() {
+        return myScoringRule;
+    }
+}
@@ -0,0 +1,985 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import java.util.AbstractList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The rules of a Tetris game without any observers or user interface. Every action
+ * returns a compact result code built from the constants below, so the engine can be
+ * driven headless at full speed; Board adapts it for the observable views.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class GameEngine {
+    // constants
+
+    /** Result code: the action changed nothing. */
+    public static final int NONE = 0;
+
+    /** Result flag: the current piece moved or rotated. */
+    public static final int MOVED = 1;
+
+    /** Result flag: the current piece was frozen onto the board. */
+    public static final int LOCKED = 1 << 1;
+
+    /** Result flag: the action ended the game; it is reported only once. */
+    public static final int GAME_OVER = 1 << 2;
+
+    /** Result flag: a new current piece entered the board. */
+    public static final int SPAWNED = 1 << 3;
+
+    /** The bit position of the number of lines cleared within a result code. */
+    public static final int LINES_SHIFT = 8;
+
+    /** The minimum width and height of a board. */
+    public static final int MIN_SIZE = 5;
+
+    /** The maximum width of a board. */
+    public static final int MAX_WIDTH = BitBoard.MAX_WIDTH;
+
+    /** The most upcoming pieces a snapshot shows, counting the next piece. */
+    public static final int PREVIEW_LENGTH = 6;
+
+    /** The representation of the side walls of the board in string output. */
+    private static final String WALL = "|";
+
+    /** The representation of the board corners in string output. */
+    private static final String CORNER = "+";
+
+    /** The representation of the board floor in string output. */
+    private static final String FLOOR = "-";
+
+    /** The representation of an empty grid position in string output. */
+    private static final String EMPTY = " ";
+
+    /** The representation of a frozen block in string output. */
+    private static final String FROZEN = "X";
+
+    /** The representation of the current piece's position in string output. */
+    private static final String CURRENT_PIECE = "*";
+
+    /** The number of extra rows above the board to display in String output. */
+    private static final int EXTRA_ROWS = 4;
+    
+    /** Represents a random game, which has no predetermined pieces. */
+    private static final AbstractPiece[] NO_PIECES = {};
+
+    // instance fields
+
+    /**
+     * The width of this Tetris board.
+     */
+    private int myWidth;
+
+    /**
+     * The height of this Tetris board.
+     */
+    private int myHeight;
+
+    /**
+     * The current frozen blocks on the board.
+     */
+    private final BitBoard myFrozenBlocks;
+
+    /**
+     * The piece currently being moved on the board.
+     */
+    private AbstractPiece myCurrentPiece;
+
+    /**
+     * The next piece to be used in the board.
+     */
+    private AbstractPiece myNextPiece;
+
+    /**
+     * The predetermined sequence of pieces to be fed into the board.
+     * This sequence will be used repeatedly.
+     */
+    private AbstractPiece[] myPieces;
+
+    /**
+     * The index in the predetermined sequence of the next piece to be used.
+     */
+    private int myPieceIndex;
+
+    /**
+     * The generator used for choosing random pieces. Each engine owns its own
+     * generator so that engines on different threads never contend for it.
+     */
+    private final PieceGenerator myGenerator;
+
+    /**
+     * The boolean representing the game state of Tetris.
+     */
+    private boolean myGameOver;
+
+    /**
+     * The number of pieces frozen during the current game.
+     */
+    private int myPiecesLocked;
+
+    /**
+     * The score, level and lines cleared of the current game.
+     */
+    private final Scoring myScoring = new Scoring(ScoringRule.ORIGINAL);
+
+    /**
+     * The scoring rule of the next game.
+     */
+    private ScoringRule myScoringRule = ScoringRule.ORIGINAL;
+
+    /**
+     * The rows cleared by the most recent freeze, from the top down.
+     */
+    private final int[] myClearedRows = new int[PieceKind.ROWS];
+
+    /**
+     * The number of rows cleared by the most recent freeze.
+     */
+    private int myClearedCount;
+
+    /**
+     * The number of changes made to the game; it identifies each state of the game.
+     */
+    private long myVersion;
+
+    /**
+     * How many rows the current piece could fall when the game was at myDropVersion.
+     */
+    private int myDropDistance;
+
+    /**
+     * The version of the game myDropDistance was found for, or -1 if none.
+     */
+    private long myDropVersion = -1;
+
+    /**
+     * The most recent snapshot, reused until the game changes again.
+     */
+    private BoardSnapshot mySnapshot;
+
+    /**
+     * The block types of the upcoming pieces, or null until a snapshot needs them.
+     */
+    private Block[] myPreview;
+
+    /**
+     * Constructs an engine using the specified dimensions and sequence of pieces.
+     * 
+     * @param theWidth the grid width
+     * @param theHeight the grid height
+     * @param thePieces the sequence of pieces to use;
+     * an empty list or null indicates a random game
+     */
+    public GameEngine(final int theWidth, final int theHeight,
+                      final Deque<Piece> thePieces) {
+        this(theWidth, theHeight, thePieces, new UniformGenerator(System.nanoTime()));
+    }
+
+    /**
+     * Constructs an engine using the specified dimensions and random pieces.
+     * 
+     * @param theWidth the grid width
+     * @param theHeight the grid height
+     */
+    public GameEngine(final int theWidth, final int theHeight) {
+        this(theWidth, theHeight, null, new UniformGenerator(System.nanoTime()));
+    }
+
+    /**
+     * Constructs an engine using the specified dimensions and uniformly random pieces
+     * chosen from the given seed. Engines with the same seed play the same sequence
+     * of pieces.
+     * 
+     * @param theWidth the grid width
+     * @param theHeight the grid height
+     * @param theSeed the seed for choosing pieces
+     */
+    public GameEngine(final int theWidth, final int theHeight, final long theSeed) {
+        this(theWidth, theHeight, null, new UniformGenerator(theSeed));
+    }
+
+    /**
+     * Constructs an engine using the specified dimensions and random pieces chosen
+     * by the given generator.
+     * 
+     * @param theWidth the grid width
+     * @param theHeight the grid height
+     * @param theGenerator the generator for choosing pieces
+     */
+    public GameEngine(final int theWidth, final int theHeight,
+                      final PieceGenerator theGenerator) {
+        this(theWidth, theHeight, null, theGenerator);
+    }
+
+    /**
+     * Constructs an engine using the specified dimensions and random pieces chosen
+     * by the given generator, scoring its games with the given rule.
+     * 
+     * @param theWidth the grid width
+     * @param theHeight the grid height
+     * @param theGenerator the generator for choosing pieces
+     * @param theRule the scoring rule
+     */
+    public GameEngine(final int theWidth, final int theHeight,
+                      final PieceGenerator theGenerator, final ScoringRule theRule) {
+        this(theWidth, theHeight, null, theGenerator, theRule);
+    }
+
+    /**
+     * Constructs an engine using the specified dimensions, sequence of pieces and
+     * piece generator.
+     * 
+     * @param theWidth the grid width
+     * @param theHeight the grid height
+     * @param thePieces the sequence of pieces to use;
+     * an empty list or null indicates a random game
+     * @param theGenerator the generator for choosing random pieces
+     */
+    private GameEngine(final int theWidth, final int theHeight,
+                       final Deque<Piece> thePieces, final PieceGenerator theGenerator) {
+        this(theWidth, theHeight, thePieces, theGenerator, ScoringRule.ORIGINAL);
+    }
+
+    /**
+     * Constructs an engine using the specified dimensions, sequence of pieces, piece
+     * generator and scoring rule.
+     * 
+     * @param theWidth the grid width
+     * @param theHeight the grid height
+     * @param thePieces the sequence of pieces to use;
+     * an empty list or null indicates a random game
+     * @param theGenerator the generator for choosing random pieces
+     * @param theRule the scoring rule
+     */
+    private GameEngine(final int theWidth, final int theHeight,
+                       final Deque<Piece> thePieces, final PieceGenerator theGenerator,
+                       final ScoringRule theRule) {
+        if (theGenerator == null) {
+            throw new IllegalArgumentException();
+        }
+        setScoringRule(theRule);
+        myCurrentPiece = new SpawnedPiece();
+        myNextPiece = new SpawnedPiece();
+        myFrozenBlocks = new BitBoard(theWidth);
+        myGenerator = theGenerator;
+        newGame(theWidth, theHeight, thePieces);
+    }
+
+    /**
+     * Returns the number of lines cleared by the action that produced a result code.
+     * 
+     * @param theResult the result code
+     * @return the number of lines cleared
+     */
+    public static int linesCleared(final int theResult) {
+        return theResult >>> LINES_SHIFT;
+    }
+
+    /**
+     * Creates a new game on a board of the specified width and height
+     * and loads the given set of pieces.
+     * 
+     * @param theWidth The width of the board
+     * @param theHeight The height of the board
+     * @param thePieces The pieces to use
+     */
+    public void newGame(final int theWidth,
+                        final int theHeight,
+                        final Deque<Piece> thePieces) {
+        
+        if (theWidth < MIN_SIZE || theWidth > MAX_WIDTH
+                || theHeight < MIN_SIZE) {
+            throw new IllegalArgumentException();
+        }
+        
+        myWidth = theWidth;
+        myHeight = theHeight;
+        
+        if (thePieces == null || thePieces.isEmpty()) {
+            myPieces = NO_PIECES;
+        } else {
+            // copy the sequence once; later pieces are cycled by index
+            myPieces = new AbstractPiece[thePieces.size()];
+            int i = 0;
+            for (final Piece piece : thePieces) {
+                myPieces[i] = new SpawnedPiece();
+                myPieces[i].reset((AbstractPiece) piece);
+                i++;
+            }
+        }
+        myPieceIndex = 0;
+        
+        myFrozenBlocks.reset(theWidth);
+        myGameOver = false;
+        myPiecesLocked = 0;
+        myClearedCount = 0;
+        myScoring.reset(myScoringRule);
+        assignNextPiece();
+        assignCurrentPiece();
+        myVersion++;
+    }
+
+    /**
+     * @return the width
+     */
+    public int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * @return the height
+     */
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * Returns the current frozen blocks on the board, one row per element from the
+     * bottom up. The list is a read-only view backed by the board's storage; each
+     * call to get() builds a fresh array for the requested row.
+     * 
+     * @return the current frozen blocks on the board.
+     */
+    public List<Block[]> getFrozenBlocks() {
+        return new FrozenRows();
+    }
+
+    /**
+     * Returns the current Piece being moved. The engine reuses its piece objects for
+     * later pieces, so a caller that needs to keep this piece should clone it.
+     * 
+     * @return the current Piece being moved.
+     */
+    public Piece getCurrentPiece() {
+        return myCurrentPiece;
+    }
+    
+    /**
+     * Returns the next piece to be used. The engine reuses its piece objects for
+     * later pieces, so a caller that needs to keep this piece should clone it.
+     * 
+     * @return the next piece to be used.
+     */
+    public Piece getNextPiece() {
+        return myNextPiece;
+    }
+
+    /**
+     * Returns whether the game is over or not.
+     * 
+     * @return Whether the game is over or not.
+     */
+    public boolean isGameOver() {
+        return myGameOver;
+    }
+
+    /**
+     * @return the number of pieces frozen during the current game
+     */
+    public int getPiecesLocked() {
+        return myPiecesLocked;
+    }
+
+    /**
+     * @return the number of lines cleared during the current game
+     */
+    public int getLinesCleared() {
+        return myScoring.getLines();
+    }
+
+    /**
+     * @return the score of the current game
+     */
+    public long getScore() {
+        return myScoring.getScore();
+    }
+
+    /**
+     * @return the level of the current game, 1 or more
+     */
+    public int getLevel() {
+        return myScoring.getLevel();
+    }
+
+    /**
+     * @return the scoring rule of the current game
+     */
+    public ScoringRule getScoringRule() {
+        return myScoring.getRule();
+    }
+
+    /**
+     * Sets the scoring rule; it takes effect when the next game starts.
+     * 
+     * @param theRule the scoring rule
+     */
+    public void setScoringRule(final ScoringRule theRule) {
+        if (theRule == null) {
+            throw new IllegalArgumentException();
+        }
+        myScoringRule = theRule;
+    }
+
+    /**
+     * @return the number of changes made to the game so far; it changes whenever
+     *         the state of the game does
+     */
+    public long getVersion() {
+        return myVersion;
+    }
+
+    /**
+     * Returns an immutable snapshot of the current state of the game. The snapshot may
+     * be handed to other threads; it is only created again once the game has changed.
+     * This method must be called by the thread playing the game.
+     * 
+     * @return the snapshot
+     */
+    public BoardSnapshot getSnapshot() {
+        if (mySnapshot == null || mySnapshot.getVersion() != myVersion) {
+            final AbstractPiece piece = myCurrentPiece;
+            final int[] rowMasks = piece.getKind().rowMasks(piece.getRotationIndex());
+            final int[] cells = new int[BoardSnapshot.PIECE_CELLS * 2];
+            int cell = 0;
+            for (int row = 0; row < rowMasks.length; row++) {
+                int bits = rowMasks[row];
+                while (bits != 0) {
+                    cells[cell++] = piece.getX() + Integer.numberOfTrailingZeros(bits);
+                    cells[cell++] = piece.getY() + row;
+                    bits &= bits - 1;
+                }
+            }
+            mySnapshot = new BoardSnapshot(myVersion, myWidth, myHeight,
+                                           myFrozenBlocks.shareRows(), piece.getBlock(),
+                                           cells, getDropDistance(), getPreview(),
+                                           myScoring.getScore(), myScoring.getLevel(),
+                                           myScoring.getLines(), myScoring.getRule(),
+                                           myGameOver);
+        }
+        return mySnapshot;
+    }
+
+    /**
+     * Returns a row cleared by the most recent freeze, numbered as it was before any
+     * rows were removed. Rows are listed from the top down.
+     * 
+     * @param theIndex the index of the cleared row, less than the lines cleared
+     * @return the row that was cleared
+     */
+    public int getClearedRow(final int theIndex) {
+        if (theIndex < 0 || theIndex >= myClearedCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        return myClearedRows[theIndex];
+    }
+
+    /**
+     * Returns whether a piece of the given type and rotation fits at the given
+     * position: inside the walls, above the floor and clear of every frozen block.
+     * This check uses precomputed masks and allocates nothing.
+     * 
+     * @param theType the block type of the piece
+     * @param theRotation the rotation index of the piece
+     * @param theX the x coordinate of the piece
+     * @param theY the y coordinate of the piece
+     * @return true if the piece can be placed at the position; false otherwise
+     */
+    public boolean canPlace(final Block theType, final int theRotation,
+                            final int theX, final int theY) {
+        return canPlace(PieceKind.forBlock(theType), theRotation, theX, theY);
+    }
+
+    /**
+     * Returns whether a piece of the given kind and rotation fits at the given position.
+     * 
+     * @param theKind the kind of piece
+     * @param theRotation the rotation index of the piece
+     * @param theX the x coordinate of the piece
+     * @param theY the y coordinate of the piece
+     * @return true if the piece can be placed at the position; false otherwise
+     */
+    private boolean canPlace(final PieceKind theKind, final int theRotation,
+                             final int theX, final int theY) {
+        return theX + theKind.minX(theRotation) >= 0
+               && theX + theKind.maxX(theRotation) < myWidth
+               && theY + theKind.minY(theRotation) >= 0
+               && !myFrozenBlocks.intersects(theKind.rowMasks(theRotation), theX, theY);
+    }
+
+    /**
+     * Returns whether the current piece, moved by the given offsets, can be placed.
+     * 
+     * @param theDeltaX the horizontal offset
+     * @param theDeltaY the vertical offset
+     * @return true if the moved piece can be placed; false otherwise
+     */
+    private boolean canMove(final int theDeltaX, final int theDeltaY) {
+        final AbstractPiece piece = myCurrentPiece;
+        return canPlace(piece.getKind(), piece.getRotationIndex(),
+                        piece.getX() + theDeltaX, piece.getY() + theDeltaY);
+    }
+
+    /**
+     * Attempts to move the current piece to the left.
+     * 
+     * @return MOVED if the piece moved, NONE otherwise
+     */
+    public int moveLeft() {
+        int result = NONE;
+        if (!myGameOver && canMove(-1, 0)) {
+            myCurrentPiece.moveLeft();
+            result = MOVED;
+            myVersion++;
+        }
+        return result;
+    }
+
+    /**
+     * Attempts to move the current piece to the right.
+     * 
+     * @return MOVED if the piece moved, NONE otherwise
+     */
+    public int moveRight() {
+        int result = NONE;
+        if (!myGameOver && canMove(1, 0)) {
+            myCurrentPiece.moveRight();
+            result = MOVED;
+            myVersion++;
+        }
+        return result;
+    }
+
+    /**
+     * Drops the current piece by one row at the player's request, freezing it if it
+     * cannot move. The row counts as a soft drop for scoring.
+     * 
+     * @return MOVED if the piece moved, NONE if the game is over, otherwise the
+     *         result of freezing it
+     */
+    public int moveDown() {
+        final int result = fall();
+        if (result == MOVED) {
+            myScoring.softDrop(1);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the current piece by up to the given number of rows at the player's request,
+     * stopping on the stack without freezing it, so a game with a lock delay leaves the
+     * locking to gravity. The rows moved count as a soft drop for scoring.
+     * 
+     * @param theRows the number of rows to drop, 1 or more
+     * @return MOVED if the piece moved, NONE if it had already landed or the game is
+     *         over
+     */
+    public int softDrop(final int theRows) {
+        if (theRows < 1) {
+            throw new IllegalArgumentException();
+        }
+        int result = NONE;
+        if (!myGameOver) {
+            final int rows = Math.min(theRows, getDropDistance());
+            if (rows > 0) {
+                myCurrentPiece.moveDown(rows);
+                myScoring.softDrop(rows);
+                result = MOVED;
+                myVersion++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Attempts to move the current piece down, freezing it if it cannot move.
+     * 
+     * @return MOVED if the piece moved, NONE if the game is over, otherwise the
+     *         result of freezing it
+     */
+    private int fall() {
+        int result = NONE;
+        if (!myGameOver) {
+            if (isMoveDownLegal()) {
+                myCurrentPiece.moveDown();
+                result = MOVED;
+                myVersion++;
+            } else {
+                result = freeze();
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Performs bound checking to determine if the current piece can move down.
+     * 
+     * @return true if it possible to move this piece down; false otherwise
+     */
+    private boolean isMoveDownLegal() {
+        return canMove(0, -1);
+    }
+
+    /**
+     * Returns how many rows the current piece can fall before it lands. The distance
+     * comes from the column surface heights; only a piece tucked under an overhang
+     * needs to be tested row by row. It is found once for each version of the game, so
+     * the game loop, the snapshot and a step in the same state share one query.
+     * 
+     * @return the number of rows the current piece can move down
+     */
+    public int getDropDistance() {
+        if (myDropVersion != myVersion) {
+            final AbstractPiece piece = myCurrentPiece;
+            final int[] bottoms = piece.getKind().bottoms(piece.getRotationIndex());
+            int result = Integer.MAX_VALUE;
+
+            for (int column = 0; column < bottoms.length; column++) {
+                if (bottoms[column] != PieceKind.NO_BLOCK) {
+                    final int x = piece.getX() + column;
+                    result = Math.min(result, piece.getY() + bottoms[column]
+                                              - myFrozenBlocks.getColumnHeight(x));
+                }
+            }
+            if (result < 0) {
+                // part of the piece is below a column's surface
+                result = 0;
+                while (canMove(0, -result - 1)) {
+                    result++;
+                }
+            }
+            myDropDistance = result;
+            myDropVersion = myVersion;
+        }
+        return myDropDistance;
+    }
+
+    /**
+     * Drops the current Piece all the way down and freezes it.
+     * 
+     * @return the result of freezing the piece, or NONE if the game is over
+     */
+    public int hardDrop() {
+        int result = NONE;
+        if (!myGameOver) {
+            final int distance = getDropDistance();
+            myCurrentPiece.moveDown(distance);
+            myScoring.hardDrop(distance);
+            result = freeze();
+        }
+        return result;
+    }
+
+    /**
+     * Attempts to rotate the current piece clockwise.
+     * 
+     * @return MOVED if the piece rotated, NONE otherwise
+     */
+    public int rotateCW() {
+        return rotate(1);
+    }
+
+    /**
+     * Attempts to rotate the current piece counterclockwise.
+     * 
+     * @return MOVED if the piece rotated, NONE otherwise
+     */
+    public int rotateCCW() {
+        return rotate(KickTable.TURNS - 1);
+    }
+
+    /**
+     * Attempts to rotate the current piece a half turn.
+     * 
+     * @return MOVED if the piece rotated, NONE otherwise
+     */
+    public int rotate180() {
+        return rotate(2);
+    }
+
+    /**
+     * Attempts to rotate the current piece, trying each of its wall kicks in turn
+     * until the rotated piece fits. The piece is only changed once a fit is found.
+     * 
+     * @param theTurns the number of quarter turns clockwise
+     * @return MOVED if the piece rotated, NONE otherwise
+     */
+    private int rotate(final int theTurns) {
+        int result = NONE;
+
+        if (!myGameOver) {
+            final AbstractPiece piece = myCurrentPiece;
+            final PieceKind kind = piece.getKind();
+            final int from = piece.getRotationIndex();
+            final int to = kind.turn(from, theTurns);
+            final int[] kicks = kind.kicks(from, theTurns);
+
+            for (int i = 0; i < kicks.length && result == NONE; i += 2) {
+                if (canPlace(kind, to, piece.getX() + kicks[i],
+                             piece.getY() + kicks[i + 1])) {
+                    piece.rotateTo(to, kicks[i], kicks[i + 1]);
+                    result = MOVED;
+                    myVersion++;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Updates the game by one step.
+     * 
+     * @return the result of moving the current piece down
+     */
+    public int step() {
+        return fall();
+    }
+
+    /**
+     * Updates the game by several rows of gravity at once. This has the same effect as
+     * calling step() up to the given number of times, stopping once the piece locks, but
+     * the rows the piece can fall are found with a single collision query.
+     * 
+     * @param theRows the number of rows to fall, 1 or more
+     * @return MOVED if the piece moved without landing, NONE if the game is over,
+     *         otherwise the result of freezing it
+     */
+    public int step(final int theRows) {
+        if (theRows < 1) {
+            throw new IllegalArgumentException();
+        }
+        int result = NONE;
+        if (!myGameOver) {
+            final int distance = getDropDistance();
+            if (theRows > distance) {
+                // the piece lands before the rows run out, so it locks at the surface
+                myCurrentPiece.moveDown(distance);
+                result = freeze();
+            } else {
+                myCurrentPiece.moveDown(theRows);
+                result = MOVED;
+                myVersion++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Initializes the current piece. The outgoing current piece object is reused
+     * for the next piece, so spawning allocates nothing.
+     */
+    private void assignCurrentPiece() {
+        final AbstractPiece spare = myCurrentPiece;
+        myCurrentPiece = myNextPiece;
+        myNextPiece = spare;
+        assignNextPiece();
+    }
+
+    /**
+     * Returns the block types of the upcoming pieces, next first. The array is built
+     * once per spawn and shared by every snapshot until the next one.
+     * 
+     * @return the upcoming block types, which must not be modified
+     */
+    private Block[] getPreview() {
+        if (myPreview == null) {
+            final int length;
+            if (myPieces.length == 0) {
+                length = Math.min(PREVIEW_LENGTH, 1 + myGenerator.getLookahead());
+            } else {
+                length = PREVIEW_LENGTH;
+            }
+            myPreview = new Block[length];
+            myPreview[0] = myNextPiece.getBlock();
+            for (int i = 1; i < length; i++) {
+                if (myPieces.length == 0) {
+                    myPreview[i] = myGenerator.peek(i - 1);
+                } else {
+                    myPreview[i] = myPieces[(myPieceIndex + i - 1) % myPieces.length]
+                                    .getBlock();
+                }
+            }
+        }
+        return myPreview;
+    }
+
+    /**
+     * Sets the next piece, either the next of the predetermined pieces or one of
+     * the type chosen by the piece generator.
+     */
+    private void assignNextPiece() {
+        myPreview = null;
+        if (myPieces.length == 0) {
+            myNextPiece.reset(PieceKind.forBlock(myGenerator.next()),
+                              myWidth / 2 - 2, myHeight, 0);
+        } else {
+            myNextPiece.reset(myPieces[myPieceIndex]);
+            myPieceIndex = (myPieceIndex + 1) % myPieces.length;
+        }
+    }
+
+    /**
+     * Evaluates if the current piece occupies the provided position.
+     * 
+     * @param theX The x-coordinate to examine
+     * @param theY The y-coordinate to examine
+     * @return true if the current piece occupies the position, false otherwise
+     */
+    private boolean currentPieceAt(final int theX, final int theY) {
+        final AbstractPiece piece = myCurrentPiece;
+        final int row = theY - piece.getY();
+        final int column = theX - piece.getX();
+        boolean result = false;
+
+        // the piece's box is as wide as it is tall; an int shift would wrap past it
+        if (row >= 0 && row < PieceKind.ROWS && column >= 0 && column < PieceKind.ROWS) {
+            final int mask = piece.getKind().rowMasks(piece.getRotationIndex())[row];
+            result = (mask >>> column & 1) != 0;
+        }
+        return result;
+    }
+
+    /**
+     * The current piece cannot move down so add its blocks to the board.
+     * 
+     * @return LOCKED combined with the lines cleared, and either SPAWNED or GAME_OVER
+     */
+    private int freeze() {
+        final AbstractPiece piece = myCurrentPiece;
+
+        // the storage adds rows until every block can fit in one
+        myFrozenBlocks.place(piece.getKind().rowMasks(piece.getRotationIndex()),
+                             piece.getX(), piece.getY(), piece.getBlock());
+        
+        final int lines = clearLines();
+        int result = LOCKED | lines << LINES_SHIFT;
+        myVersion++;
+        myPiecesLocked++;
+        myScoring.lock(lines);
+        
+        if (myFrozenBlocks.getRowCount() > myHeight) {
+            myGameOver = true;
+            result |= GAME_OVER;
+        } else {
+            assignCurrentPiece();
+            result |= SPAWNED;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if there are any lines that need to be cleared
+     * and removes them from the board.
+     * 
+     * @return the number of lines cleared
+     */
+    private int clearLines() {
+        int result = 0;
+        for (int i = myFrozenBlocks.getRowCount() - 1; i >= 0; i--) {
+            if (myFrozenBlocks.isRowFull(i)) {
+                myFrozenBlocks.removeRow(i);
+                myClearedRows[result] = i;
+                result++;
+            }
+        }
+        myClearedCount = result;
+        return result;
+    }
+
+    /**
+     * Returns a string that represents the current state of the game.
+     * 
+     * @return The string representation of the board
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = myHeight + EXTRA_ROWS - 1; i > myHeight - 1; i--) {
+            sb.append(EMPTY);
+            sb.append(getRowString(i));
+            sb.append('\n');
+        }
+
+        for (int i = myHeight - 1; i >= 0; i--) {
+            sb.append(WALL);
+            sb.append(getRowString(i));
+            sb.append(WALL);
+            sb.append('\n');
+        }
+        sb.append(CORNER);
+        for (int i = 0; i < myWidth; i++) {
+            sb.append(FLOOR);
+        }
+        sb.append(CORNER);
+        return sb.toString();
+    }
+
+    /**
+     * Returns a string representing the blocks in the given row.
+     * 
+     * @param theRow The row to represent
+     * @return The string representation
+     */
+    private String getRowString(final int theRow) {
+        final StringBuilder sb = new StringBuilder();
+
+        for (int column = 0; column < myWidth; column++) {
+            if (currentPieceAt(column, theRow)) {
+                sb.append(CURRENT_PIECE);
+            } else if (myFrozenBlocks.isOccupied(column, theRow)) {
+                sb.append(FROZEN);
+            } else {
+                sb.append(EMPTY);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A read-only list view of the frozen rows, used by the views to draw the board.
+     */
+    private final class FrozenRows extends AbstractList<Block[]> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Block[] get(final int theIndex) {
+            if (theIndex < 0 || theIndex >= size()) {
+                throw new IndexOutOfBoundsException();
+            }
+            final Block[] row = new Block[myWidth];
+            myFrozenBlocks.copyRow(theIndex, row);
+            return row;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return myFrozenBlocks.getRowCount();
+        }
+    }
+
+    /**
+     * A piece object owned by the engine, which changes kind as it is reused for
+     * each new piece.
+     */
+    private static final class SpawnedPiece extends AbstractPiece {
+
+        /**
+         * Creates a piece to be reset before it is used.
+         */
+        SpawnedPiece() {
+            super(PieceKind.I, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * The available ways of choosing random pieces.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public enum GeneratorType {
+
+    /** Every piece chosen independently. */
+    UNIFORM {
+        @Override
+        public PieceGenerator create(final long theSeed) {
+            return new UniformGenerator(theSeed);
+        }
+    },
+    /** Pieces dealt from shuffled bags of seven. */
+    BAG {
+        @Override
+        public PieceGenerator create(final long theSeed) {
+            return new BagGenerator(theSeed);
+        }
+    },
+    /** Pieces rerolled when they match a recent piece. */
+    HISTORY {
+        @Override
+        public PieceGenerator create(final long theSeed) {
+            return new HistoryGenerator(theSeed);
+        }
+    };
+
+    /**
+     * Creates a generator of this type.
+     * 
+     * @param theSeed the seed
+     * @return the generator
+     */
+    public abstract PieceGenerator create(long theSeed);
+}
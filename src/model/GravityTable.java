@@ -0,0 +1,114 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * How fast pieces fall at each level, in cells per frame. A value below one moves a
+ * piece one row every few frames; a value above one moves it several rows in a frame,
+ * up to 20 cells per frame (20G), which drops a piece to the floor of a standard board
+ * at once. Levels past the end of the table keep its last value. Each scoring rule
+ * paces its levels with its own table.
+ *
+ * The speeds are held in fixed point, CELL units to a cell, so the fractions of a
+ * row a piece falls in each frame add up exactly from frame to frame.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public final class GravityTable {
+
+    /** One cell per frame in the fixed point units of the table. */
+    public static final int CELL = 1 << 16;
+
+    /** The fastest speed a table may hold: 20 cells per frame. */
+    public static final int MAX_GRAVITY = 20 * CELL;
+
+    /**
+     * The speeds of the original game: one row a second at level 1 and 50 ms less
+     * between rows at each level after it, down to 50 ms a row from level 20.
+     */
+    public static final GravityTable ORIGINAL = fromFramesPerRow(new int[] {
+        60, 57, 54, 51, 48, 45, 42, 39, 36, 33, 30, 27, 24, 21, 18, 15, 12, 9, 6, 3,
+    });
+
+    /**
+     * The speeds of the classic curve, in the frames each row takes at each level,
+     * down to one row a frame from level 30.
+     */
+    public static final GravityTable CLASSIC = fromFramesPerRow(new int[] {
+        48, 43, 38, 33, 28, 23, 18, 13, 8, 6, 5, 5, 5, 4, 4, 4, 3, 3, 3,
+        2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1,
+    });
+
+    /**
+     * The speeds of the standard guideline curve at 60 frames per second, from
+     * level 1 at one row a second up to 20G at level 19.
+     */
+    public static final GravityTable GUIDELINE = new GravityTable(new double[] {
+        0.016667, 0.021017, 0.026978, 0.035256, 0.046922, 0.063612, 0.087869,
+        0.12370, 0.17753, 0.25980, 0.38781, 0.59065, 0.91811, 1.4570, 2.3612,
+        3.9091, 6.6135, 11.438, 20,
+    });
+
+    /** The speed of each level from level 1, in fixed point cells per frame. */
+    private final int[] myGravity;
+
+    /**
+     * Creates a table from the speed of each level.
+     *
+     * @param theCellsPerFrame the speed of each level from level 1, each more than 0
+     *            and at most 20 cells per frame
+     */
+    public GravityTable(final double[] theCellsPerFrame) {
+        if (theCellsPerFrame.length == 0) {
+            throw new IllegalArgumentException();
+        }
+        myGravity = new int[theCellsPerFrame.length];
+        for (int i = 0; i < theCellsPerFrame.length; i++) {
+            final long gravity = Math.round(theCellsPerFrame[i] * CELL);
+            if (gravity < 1 || gravity > MAX_GRAVITY) {
+                throw new IllegalArgumentException("Invalid gravity: "
+                                                   + theCellsPerFrame[i]);
+            }
+            myGravity[i] = (int) gravity;
+        }
+    }
+
+    /**
+     * Creates a table from the number of frames a row takes at each level.
+     *
+     * @param theFramesPerRow the frames per row of each level from level 1, each at
+     *            least 1
+     * @return the table
+     */
+    public static GravityTable fromFramesPerRow(final int[] theFramesPerRow) {
+        final double[] cellsPerFrame = new double[theFramesPerRow.length];
+        for (int i = 0; i < theFramesPerRow.length; i++) {
+            if (theFramesPerRow[i] < 1) {
+                throw new IllegalArgumentException("Invalid frames per row: "
+                                                   + theFramesPerRow[i]);
+            }
+            cellsPerFrame[i] = 1.0 / theFramesPerRow[i];
+        }
+        return new GravityTable(cellsPerFrame);
+    }
+
+    /**
+     * Returns the speed of a level.
+     *
+     * @param theLevel the level, 1 or more
+     * @return the speed in units of CELL per frame
+     */
+    public int getGravity(final int theLevel) {
+        return myGravity[Math.min(Math.max(theLevel, 1), myGravity.length) - 1];
+    }
+
+    /**
+     * @return the number of levels in the table
+     */
+    public int getLevels() {
+        return myGravity.length;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Chooses pieces at random but rerolls a type found among the most recent pieces,
+ * up to a fixed number of times. Repeats become rare without a strict bag.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class HistoryGenerator extends AbstractPieceGenerator {
+
+    /** The number of recent pieces remembered by default. */
+    private static final int DEFAULT_HISTORY = 4;
+
+    /** The number of rolls made by default before accepting a repeat. */
+    private static final int DEFAULT_ROLLS = 6;
+
+    /** The number of piece types; every Block except EMPTY. */
+    private static final int TYPES = Block.values().length - 1;
+
+    /** The ring buffer of the most recent Block ordinals. */
+    private final byte[] myHistory;
+
+    /** The index of the oldest entry in the history. */
+    private int myOldest;
+
+    /** The number of rolls made before accepting a repeat. */
+    private final int myRolls;
+
+    /**
+     * Creates a history generator remembering four pieces and rolling six times.
+     * 
+     * @param theSeed the seed
+     */
+    public HistoryGenerator(final long theSeed) {
+        this(theSeed, DEFAULT_HISTORY, DEFAULT_ROLLS);
+    }
+
+    /**
+     * Creates a history generator.
+     * 
+     * @param theSeed the seed
+     * @param theHistory the number of recent pieces remembered
+     * @param theRolls the number of rolls made before accepting a repeat
+     */
+    public HistoryGenerator(final long theSeed, final int theHistory, final int theRolls) {
+        super(theSeed);
+        if (theHistory < 1 || theRolls < 1) {
+            throw new IllegalArgumentException();
+        }
+        myHistory = new byte[theHistory];
+        // start from S and Z so the first pieces are unlikely to be the awkward ones
+        Arrays.fill(myHistory, (byte) Block.Z.ordinal());
+        for (int i = 0; i < theHistory; i += 2) {
+            myHistory[i] = (byte) Block.S.ordinal();
+        }
+        myRolls = theRolls;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int generate() {
+        int result = 0;
+        for (int roll = 0; roll < myRolls; roll++) {
+            result = Block.EMPTY.ordinal() + 1 + nextInt(TYPES);
+            if (!inHistory(result)) {
+                break;
+            }
+        }
+        myHistory[myOldest] = (byte) result;
+        myOldest = (myOldest + 1) % myHistory.length;
+        return result;
+    }
+
+    /**
+     * @param theOrdinal a Block ordinal
+     * @return true if the type is among the most recent pieces
+     */
+    private boolean inHistory(final int theOrdinal) {
+        boolean result = false;
+        for (final byte recent : myHistory) {
+            result |= recent == theOrdinal;
+        }
+        return result;
+    }
+}
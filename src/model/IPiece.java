@@ -12,15 +12,6 @@ package model;
  */
 public final class IPiece extends AbstractPiece {
 
-    /**
-     * The x and y-coordinates for all rotations of a IPiece.
-     * The x coordinate is listed first, then the y coordinate.
-     */
-    private static final int[][][] MY_ROTATIONS = {{{0, 2}, {1, 2}, {2, 2}, {3, 2}},
-                                                   {{2, 3}, {2, 2}, {2, 1}, {2, 0}},
-                                                   {{0, 1}, {1, 1}, {2, 1}, {3, 1}},
-                                                   {{1, 0}, {1, 1}, {1, 2}, {1, 3}}};
-
     /**
      * Creates a new I piece at the given coordinates.
      * 
@@ -28,6 +19,6 @@ public final class IPiece extends AbstractPiece {
      * @param theY The y coordinate of the piece
      */
     public IPiece(final int theX, final int theY) {
-        super(MY_ROTATIONS, theX, theY, Block.I);
+        super(PieceKind.I, theX, theY);
     }
 }
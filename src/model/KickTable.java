@@ -0,0 +1,98 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * The wall kicks tried when a piece rotates, following the Super Rotation System.
+ * Each table lists, for every starting rotation and turn, the offsets to test in
+ * order; the first offset at which the rotated piece fits is used. Offsets are
+ * flattened into x, y pairs with y increasing upward, and every table is built once
+ * and shared by the piece kinds that use it.
+ *
+ * Quarter turns use the standard tables. Half turns use the widely played SRS+
+ * table, since the standard system has no half turn.
+ *
+ * @author James Brewer
+ * @version B
+ */
+enum KickTable {
+
+    /** No kicks: the piece only rotates in place. */
+    NONE(Tables.IN_PLACE, Tables.IN_PLACE),
+
+    /** The kicks shared by the J, L, S, T and Z pieces. */
+    STANDARD(new int[][] {{0, 0, -1, 0, -1, 1, 0, -2, -1, -2},
+                          {0, 0, 1, 0, 1, -1, 0, 2, 1, 2},
+                          {0, 0, 1, 0, 1, 1, 0, -2, 1, -2},
+                          {0, 0, -1, 0, -1, -1, 0, 2, -1, 2}}, Tables.HALF_TURN),
+
+    /** The kicks of the I piece. */
+    I(new int[][] {{0, 0, -2, 0, 1, 0, -2, -1, 1, 2},
+                   {0, 0, -1, 0, 2, 0, -1, 2, 2, -1},
+                   {0, 0, 2, 0, -1, 0, 2, 1, -1, -2},
+                   {0, 0, 1, 0, -2, 0, 1, -2, -2, 1}}, Tables.HALF_TURN);
+
+    /** The number of quarter turns in a full turn. */
+    static final int TURNS = 4;
+
+    /** The kicks, indexed by quarter turns clockwise then starting rotation. */
+    private final int[][][] myKicks = new int[TURNS][][];
+
+    /**
+     * Creates a kick table. A counterclockwise turn reverses the clockwise turn into
+     * its starting rotation, so it tests the same offsets negated.
+     *
+     * @param theClockwise the kicks of a clockwise turn from each starting rotation
+     * @param theHalfTurn the kicks of a half turn from each starting rotation
+     */
+    KickTable(final int[][] theClockwise, final int[][] theHalfTurn) {
+        final int[][] counter = new int[TURNS][];
+        for (int from = 0; from < TURNS; from++) {
+            final int[] reverse = theClockwise[(from + TURNS - 1) % TURNS];
+            counter[from] = new int[reverse.length];
+            for (int i = 0; i < reverse.length; i++) {
+                counter[from][i] = -reverse[i];
+            }
+        }
+        myKicks[1] = theClockwise;
+        myKicks[2] = theHalfTurn;
+        myKicks[TURNS - 1] = counter;
+    }
+
+    /**
+     * Returns the offsets to test for a turn. The returned array is shared and must
+     * not be modified.
+     *
+     * @param theFrom the starting rotation
+     * @param theTurns the number of quarter turns clockwise: 1, 2 or 3
+     * @return the offsets as x, y pairs in the order they are tried
+     */
+    int[] kicks(final int theFrom, final int theTurns) {
+        return myKicks[theTurns][theFrom];
+    }
+
+    /**
+     * Holds the tables shared between constants, which the constants cannot read
+     * from fields of the enum while it is still being initialized.
+     */
+    private static final class Tables {
+
+        /** The kicks of a turn that only rotates in place. */
+        static final int[][] IN_PLACE = {{0, 0}, {0, 0}, {0, 0}, {0, 0}};
+
+        /** The kicks of a half turn from each starting rotation. */
+        static final int[][] HALF_TURN = {{0, 0, 0, 1, 1, 1, -1, 1, 1, 0, -1, 0},
+                                          {0, 0, 1, 0, 1, 2, 1, 1, 0, 2, 0, 1},
+                                          {0, 0, 0, -1, -1, -1, 1, -1, -1, 0, 1, 0},
+                                          {0, 0, -1, 0, -1, 2, -1, 1, 0, 2, 0, 1}};
+
+        /**
+         * Private constructor to prevent instantiation.
+         */
+        private Tables() {
+            // do nothing
+        }
+    }
+}
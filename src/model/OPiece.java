@@ -12,12 +12,6 @@ package model;
  */
 public final class OPiece extends AbstractPiece {
 
-    /**
-     * The x and y-coordinates for all rotations of an OPiece.
-     * The x coordinate is listed first, then the y coordinate.
-     */
-    private static final int[][][] MY_ROTATIONS = {{{1, 2}, {2, 2}, {1, 1}, {2, 1}}};
-
     /**
      * Creates a new O piece at the given coordinates.
      * 
@@ -25,6 +19,6 @@ public final class OPiece extends AbstractPiece {
      * @param theY The y coordinate of the piece
      */
     public OPiece(final int theX, final int theY) {
-        super(MY_ROTATIONS, theX, theY, Block.O);
+        super(PieceKind.O, theX, theY);
     }
 }
@@ -0,0 +1,37 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * A source of the block types of upcoming pieces. Each board owns its own generator,
+ * so games never share random state.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public interface PieceGenerator {
+
+    /**
+     * Removes the next block type from the queue of upcoming pieces and returns it.
+     * 
+     * @return the block type of the next piece, never EMPTY
+     */
+    Block next();
+
+    /**
+     * Returns an upcoming block type without removing it from the queue.
+     * 
+     * @param theIndex how many pieces ahead to look, 0 for the piece next() returns
+     * @return the block type of the upcoming piece
+     * @throws IndexOutOfBoundsException if theIndex is negative or not less than
+     *         getLookahead()
+     */
+    Block peek(int theIndex);
+
+    /**
+     * @return the number of upcoming pieces that peek() can return
+     */
+    int getLookahead();
+}
@@ -0,0 +1,264 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The shape of each kind of Tetris piece. A kind holds the block offsets of every
+ * rotation together with tables precomputed from them: row masks for collision checks,
+ * bounding boxes, and the lowest block of each column, plus the wall kicks it tries
+ * when it rotates. The tables are built once and
+ * shared by every piece of the kind, so a piece itself is only a kind, a position and
+ * a rotation index.
+ *
+ * Row r of a rotation's masks holds a bit for each block of the piece that sits r rows
+ * above the piece's y coordinate, with bit c set for a block c columns right of the
+ * piece's x coordinate.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public enum PieceKind {
+
+    /** The I piece. */
+    I(Block.I, KickTable.I, new int[][][] {{{0, 2}, {1, 2}, {2, 2}, {3, 2}},
+                                          {{2, 3}, {2, 2}, {2, 1}, {2, 0}},
+                                          {{0, 1}, {1, 1}, {2, 1}, {3, 1}},
+                                          {{1, 0}, {1, 1}, {1, 2}, {1, 3}}}),
+
+    /** The J piece. */
+    J(Block.J, KickTable.STANDARD, new int[][][] {{{0, 2}, {0, 1}, {1, 1}, {2, 1}},
+                                                 {{1, 2}, {2, 2}, {1, 1}, {1, 0}},
+                                                 {{0, 1}, {1, 1}, {2, 1}, {2, 0}},
+                                                 {{1, 2}, {1, 1}, {0, 0}, {1, 0}}}),
+
+    /** The L piece. */
+    L(Block.L, KickTable.STANDARD, new int[][][] {{{2, 2}, {0, 1}, {1, 1}, {2, 1}},
+                                                 {{1, 2}, {1, 1}, {1, 0}, {2, 0}},
+                                                 {{0, 1}, {1, 1}, {2, 1}, {0, 0}},
+                                                 {{0, 2}, {1, 2}, {1, 1}, {1, 0}}}),
+
+    /** The O piece. */
+    O(Block.O, KickTable.NONE, new int[][][] {{{1, 2}, {2, 2}, {1, 1}, {2, 1}}}),
+
+    /** The S piece. */
+    S(Block.S, KickTable.STANDARD, new int[][][] {{{1, 2}, {2, 2}, {0, 1}, {1, 1}},
+                                                 {{1, 2}, {1, 1}, {2, 1}, {2, 0}},
+                                                 {{1, 1}, {2, 1}, {0, 0}, {1, 0}},
+                                                 {{0, 2}, {0, 1}, {1, 1}, {1, 0}}}),
+
+    /** The T piece. */
+    T(Block.T, KickTable.STANDARD, new int[][][] {{{1, 2}, {0, 1}, {1, 1}, {2, 1}},
+                                                 {{1, 2}, {1, 1}, {2, 1}, {1, 0}},
+                                                 {{0, 1}, {1, 1}, {2, 1}, {1, 0}},
+                                                 {{1, 2}, {0, 1}, {1, 1}, {1, 0}}}),
+
+    /** The Z piece. */
+    Z(Block.Z, KickTable.STANDARD, new int[][][] {{{0, 2}, {1, 2}, {1, 1}, {2, 1}},
+                                                 {{2, 2}, {1, 1}, {2, 1}, {1, 0}},
+                                                 {{0, 1}, {1, 1}, {1, 0}, {2, 0}},
+                                                 {{1, 2}, {0, 1}, {1, 1}, {0, 0}}});
+
+    /** The number of blocks in a piece. */
+    public static final int BLOCKS = 4;
+
+    /** The number of rows and columns covered by a piece's bounding box. */
+    static final int ROWS = 4;
+
+    /** The bottom of a bounding box column that holds no block. */
+    static final int NO_BLOCK = -1;
+
+    /** The kind of each block type, indexed by Block ordinal. */
+    private static final PieceKind[] BY_BLOCK = new PieceKind[Block.values().length];
+
+    static {
+        for (final PieceKind kind : values()) {
+            BY_BLOCK[kind.myBlock.ordinal()] = kind;
+        }
+    }
+
+    /** The block type of the kind. */
+    private final Block myBlock;
+
+    /** The wall kicks tried when a piece of the kind rotates. */
+    private final KickTable myKicks;
+
+    /** The block offsets, indexed by rotation, block, then x and y. */
+    private final int[][][] myRotations;
+
+    /** The row masks, indexed by rotation and row. */
+    private final int[][] myRowMasks;
+
+    /** The leftmost column offset of each rotation. */
+    private final int[] myMinX;
+
+    /** The rightmost column offset of each rotation. */
+    private final int[] myMaxX;
+
+    /** The lowest row offset of each rotation. */
+    private final int[] myMinY;
+
+    /**
+     * The row offset of the lowest block in each column of the bounding box, or
+     * NO_BLOCK, indexed by rotation and column.
+     */
+    private final int[][] myBottoms;
+
+    /**
+     * Creates a piece kind and precomputes its tables.
+     *
+     * @param theBlock the block type of the kind
+     * @param theKicks the wall kicks of the kind
+     * @param theRotations the block offsets of every rotation, x first then y
+     */
+    PieceKind(final Block theBlock, final KickTable theKicks,
+              final int[][][] theRotations) {
+        final int rotations = theRotations.length;
+        myBlock = theBlock;
+        myKicks = theKicks;
+        myRotations = theRotations;
+        myRowMasks = new int[rotations][ROWS];
+        myMinX = new int[rotations];
+        myMaxX = new int[rotations];
+        myMinY = new int[rotations];
+        myBottoms = new int[rotations][ROWS];
+
+        for (int rotation = 0; rotation < rotations; rotation++) {
+            int minX = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE;
+            int minY = Integer.MAX_VALUE;
+            Arrays.fill(myBottoms[rotation], NO_BLOCK);
+            for (final int[] block : theRotations[rotation]) {
+                final int bottom = myBottoms[rotation][block[0]];
+                if (bottom == NO_BLOCK || block[1] < bottom) {
+                    myBottoms[rotation][block[0]] = block[1];
+                }
+                myRowMasks[rotation][block[1]] |= 1 << block[0];
+                minX = Math.min(minX, block[0]);
+                maxX = Math.max(maxX, block[0]);
+                minY = Math.min(minY, block[1]);
+            }
+            myMinX[rotation] = minX;
+            myMaxX[rotation] = maxX;
+            myMinY[rotation] = minY;
+        }
+    }
+
+    /**
+     * Returns the kind of piece made of the given block type.
+     *
+     * @param theBlock the block type, other than EMPTY
+     * @return the kind of piece
+     */
+    public static PieceKind forBlock(final Block theBlock) {
+        final PieceKind result = BY_BLOCK[theBlock.ordinal()];
+        if (result == null) {
+            throw new IllegalArgumentException();
+        }
+        return result;
+    }
+
+    /**
+     * @return the block type of this kind
+     */
+    public Block getBlock() {
+        return myBlock;
+    }
+
+    /**
+     * @return the number of distinct rotations of this kind
+     */
+    public int getRotationCount() {
+        return myRotations.length;
+    }
+
+    /**
+     * @param theRotation the rotation index
+     * @param theIndex the block index, from 0 to BLOCKS - 1
+     * @return the column offset of the block
+     */
+    public int getCellX(final int theRotation, final int theIndex) {
+        return myRotations[theRotation][theIndex][0];
+    }
+
+    /**
+     * @param theRotation the rotation index
+     * @param theIndex the block index, from 0 to BLOCKS - 1
+     * @return the row offset of the block
+     */
+    public int getCellY(final int theRotation, final int theIndex) {
+        return myRotations[theRotation][theIndex][1];
+    }
+
+    /**
+     * Returns the rotation reached by turning clockwise from another rotation.
+     *
+     * @param theFrom the starting rotation index
+     * @param theTurns the number of quarter turns clockwise
+     * @return the rotation index after turning
+     */
+    int turn(final int theFrom, final int theTurns) {
+        return (theFrom + theTurns) % myRotations.length;
+    }
+
+    /**
+     * Returns the offsets to test, in order, when turning from a rotation. The
+     * returned array is shared and must not be modified.
+     *
+     * @param theFrom the starting rotation index
+     * @param theTurns the number of quarter turns clockwise: 1, 2 or 3
+     * @return the offsets as x, y pairs
+     */
+    int[] kicks(final int theFrom, final int theTurns) {
+        return myKicks.kicks(theFrom, theTurns);
+    }
+
+    /**
+     * Returns the row masks of a rotation. The returned array is shared and must not
+     * be modified.
+     *
+     * @param theRotation the rotation index
+     * @return the row masks, from the bottom of the bounding box up
+     */
+    int[] rowMasks(final int theRotation) {
+        return myRowMasks[theRotation];
+    }
+
+    /**
+     * Returns the lowest block of each column of a rotation. The returned array is
+     * shared and must not be modified.
+     *
+     * @param theRotation the rotation index
+     * @return the row offset of the lowest block in each column, NO_BLOCK if none
+     */
+    int[] bottoms(final int theRotation) {
+        return myBottoms[theRotation];
+    }
+
+    /**
+     * @param theRotation the rotation index
+     * @return the column offset of the leftmost block
+     */
+    int minX(final int theRotation) {
+        return myMinX[theRotation];
+    }
+
+    /**
+     * @param theRotation the rotation index
+     * @return the column offset of the rightmost block
+     */
+    int maxX(final int theRotation) {
+        return myMaxX[theRotation];
+    }
+
+    /**
+     * @param theRotation the rotation index
+     * @return the row offset of the lowest block
+     */
+    int minY(final int theRotation) {
+        return myMinY[theRotation];
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * The score, level and cleared lines of one game under a scoring rule. Every update
+ * takes constant time, so the engine can keep the counters current on each lock and
+ * drop without slowing headless games down. Only the engine changes them.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class Scoring {
+
+    /**
+     * The divisor of the back-to-back bonus: half as much again.
+     */
+    private static final int BACK_TO_BACK_DIVISOR = 2;
+
+    /**
+     * The number of lines in the clear that counts for back-to-back.
+     */
+    private static final int BACK_TO_BACK_LINES = 4;
+
+    /**
+     * The rule the counters follow.
+     */
+    private ScoringRule myRule;
+
+    /**
+     * The score.
+     */
+    private long myScore;
+
+    /**
+     * The level, 1 or more.
+     */
+    private int myLevel;
+
+    /**
+     * The number of lines cleared.
+     */
+    private int myLines;
+
+    /**
+     * The number of clears in a row after the first, -1 when the last lock cleared
+     * nothing.
+     */
+    private int myCombo;
+
+    /**
+     * Whether the last clear was of four lines.
+     */
+    private boolean myBackToBack;
+
+    /**
+     * Creates counters for a new game.
+     *
+     * @param theRule the rule to follow
+     */
+    Scoring(final ScoringRule theRule) {
+        reset(theRule);
+    }
+
+    /**
+     * Clears the counters for a new game.
+     *
+     * @param theRule the rule to follow
+     */
+    void reset(final ScoringRule theRule) {
+        if (theRule == null) {
+            throw new IllegalArgumentException();
+        }
+        myRule = theRule;
+        myScore = 0;
+        myLevel = 1;
+        myLines = 0;
+        myCombo = -1;
+        myBackToBack = false;
+    }
+
+    /**
+     * Counts a piece locking into place.
+     *
+     * @param theLines the number of lines the lock cleared
+     */
+    void lock(final int theLines) {
+        if (theLines == 0) {
+            myCombo = -1;
+        } else {
+            long points = myRule.getLinePoints(theLines);
+            if (myRule.isLevelMultiplied()) {
+                points *= myLevel;
+            }
+            if (myRule.hasBackToBack()) {
+                final boolean four = theLines == BACK_TO_BACK_LINES;
+                if (four && myBackToBack) {
+                    points += points / BACK_TO_BACK_DIVISOR;
+                }
+                myBackToBack = four;
+            }
+            myCombo++;
+            points += (long) myRule.getComboPoints() * myCombo * myLevel;
+            myScore += points;
+            myLines += theLines;
+
+            // a clear of several lines may cross more than one level
+            final int level = myRule.levelFor(myLines);
+            while (myLevel < level) {
+                myScore += (long) myRule.getLevelBonus() * myLevel;
+                myLevel++;
+            }
+        }
+    }
+
+    /**
+     * Counts rows the player dropped the piece by hand, one row at a time.
+     *
+     * @param theRows the number of rows
+     */
+    void softDrop(final int theRows) {
+        myScore += (long) myRule.getSoftDropPoints() * theRows;
+    }
+
+    /**
+     * Counts rows the player dropped the piece all at once.
+     *
+     * @param theRows the number of rows
+     */
+    void hardDrop(final int theRows) {
+        myScore += (long) myRule.getHardDropPoints() * theRows;
+    }
+
+    /**
+     * @return the rule the counters follow
+     */
+    ScoringRule getRule() {
+        return myRule;
+    }
+
+    /**
+     * @return the score
+     */
+    long getScore() {
+        return myScore;
+    }
+
+    /**
+     * @return the level, 1 or more
+     */
+    int getLevel() {
+        return myLevel;
+    }
+
+    /**
+     * @return the number of lines cleared
+     */
+    int getLines() {
+        return myLines;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * The available ways of scoring a game and of counting its levels. A level is
+ * reached every fixed number of cleared lines, starting from level 1.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public enum ScoringRule {
+
+    /**
+     * 50 points for the first line of a clear, 100 for the second and so on, with a
+     * bonus of 500 times the level for each level reached; a level every 5 lines, on
+     * the original gravity curve.
+     */
+    ORIGINAL(new int[] {0, 50, 150, 300, 500}, false, 5, 500, 0, 0, false, 0,
+             GravityTable.ORIGINAL),
+
+    /**
+     * 100, 300, 500 or 800 points times the level for 1 to 4 lines, half as much
+     * again for back-to-back fours, 50 times the combo and the level for each clear
+     * in a row, 1 point per row of soft drop and 2 per row of hard drop; a level
+     * every 10 lines, on the guideline gravity curve.
+     */
+    GUIDELINE(new int[] {0, 100, 300, 500, 800}, true, 10, 0, 1, 2, true, 50,
+              GravityTable.GUIDELINE),
+
+    /**
+     * 40, 100, 300 or 1200 points times the level for 1 to 4 lines and 1 point per
+     * row of soft drop; a level every 10 lines, on the classic gravity curve.
+     */
+    CLASSIC(new int[] {0, 40, 100, 300, 1200}, true, 10, 0, 1, 0, false, 0,
+            GravityTable.CLASSIC);
+
+    /**
+     * The points for clearing each number of lines at once, at level 1.
+     */
+    private final int[] myLinePoints;
+
+    /**
+     * Whether the points for clearing lines are multiplied by the level.
+     */
+    private final boolean myLevelMultiplied;
+
+    /**
+     * The number of lines cleared for each level.
+     */
+    private final int myLinesPerLevel;
+
+    /**
+     * The points times the level awarded on leaving each level.
+     */
+    private final int myLevelBonus;
+
+    /**
+     * The points for each row of soft drop.
+     */
+    private final int mySoftDropPoints;
+
+    /**
+     * The points for each row of hard drop.
+     */
+    private final int myHardDropPoints;
+
+    /**
+     * Whether a clear of four lines straight after another is worth half as much again.
+     */
+    private final boolean myBackToBack;
+
+    /**
+     * The points times the combo and the level for each clear in a row after the first.
+     */
+    private final int myComboPoints;
+
+    /**
+     * How fast pieces fall at each level.
+     */
+    private final GravityTable myGravity;
+
+    /**
+     * Creates a rule set.
+     *
+     * @param theLinePoints the points for clearing each number of lines at level 1
+     * @param theLevelMultiplied whether line points are multiplied by the level
+     * @param theLinesPerLevel the number of lines cleared for each level
+     * @param theLevelBonus the points times the level for leaving a level
+     * @param theSoftDropPoints the points for each row of soft drop
+     * @param theHardDropPoints the points for each row of hard drop
+     * @param theBackToBack whether back-to-back fours earn more
+     * @param theComboPoints the points times the combo and level for a clear in a row
+     * @param theGravity how fast pieces fall at each level
+     */
+    ScoringRule(final int[] theLinePoints, final boolean theLevelMultiplied,
+                final int theLinesPerLevel, final int theLevelBonus,
+                final int theSoftDropPoints, final int theHardDropPoints,
+                final boolean theBackToBack, final int theComboPoints,
+                final GravityTable theGravity) {
+        myLinePoints = theLinePoints;
+        myLevelMultiplied = theLevelMultiplied;
+        myLinesPerLevel = theLinesPerLevel;
+        myLevelBonus = theLevelBonus;
+        mySoftDropPoints = theSoftDropPoints;
+        myHardDropPoints = theHardDropPoints;
+        myBackToBack = theBackToBack;
+        myComboPoints = theComboPoints;
+        myGravity = theGravity;
+    }
+
+    /**
+     * Returns the points for clearing lines at once, before any multiplier.
+     *
+     * @param theLines the number of lines, 0 to 4
+     * @return the points
+     */
+    int getLinePoints(final int theLines) {
+        return myLinePoints[theLines];
+    }
+
+    /**
+     * @return whether the points for clearing lines are multiplied by the level
+     */
+    boolean isLevelMultiplied() {
+        return myLevelMultiplied;
+    }
+
+    /**
+     * Returns the level reached after clearing a number of lines.
+     *
+     * @param theLines the lines cleared in the game so far
+     * @return the level, 1 or more
+     */
+    public int levelFor(final int theLines) {
+        return 1 + theLines / myLinesPerLevel;
+    }
+
+    /**
+     * @return how fast pieces fall at each level
+     */
+    public GravityTable getGravityTable() {
+        return myGravity;
+    }
+
+    /**
+     * @return the number of lines cleared for each level
+     */
+    public int getLinesPerLevel() {
+        return myLinesPerLevel;
+    }
+
+    /**
+     * @return the points times the level awarded on leaving each level
+     */
+    int getLevelBonus() {
+        return myLevelBonus;
+    }
+
+    /**
+     * @return the points for each row of soft drop
+     */
+    int getSoftDropPoints() {
+        return mySoftDropPoints;
+    }
+
+    /**
+     * @return the points for each row of hard drop
+     */
+    int getHardDropPoints() {
+        return myHardDropPoints;
+    }
+
+    /**
+     * @return whether a clear of four lines straight after another earns more
+     */
+    boolean hasBackToBack() {
+        return myBackToBack;
+    }
+
+    /**
+     * @return the points times the combo and the level for each clear in a row
+     */
+    int getComboPoints() {
+        return myComboPoints;
+    }
+}
@@ -12,15 +12,6 @@ package model;
  */
 public final class TPiece extends AbstractPiece {
 
-    /**
-     * The x and y-coordinates for all rotations of a TPiece.
-     * The x coordinate is listed first, then the y coordinate.
-     */
-    private static final int[][][] MY_ROTATIONS = {{{1, 2}, {0, 1}, {1, 1}, {2, 1}},
-                                                   {{1, 2}, {1, 1}, {2, 1}, {1, 0}},
-                                                   {{0, 1}, {1, 1}, {2, 1}, {1, 0}},
-                                                   {{1, 2}, {0, 1}, {1, 1}, {1, 0}}};
-
     /**
      * Creates a new T piece at the given coordinates.
      * 
@@ -28,6 +19,6 @@ public final class TPiece extends AbstractPiece {
      * @param theY The y coordinate of the piece
      */
     public TPiece(final int theX, final int theY) {
-        super(MY_ROTATIONS, theX, theY, Block.T);
+        super(PieceKind.T, theX, theY);
     }
 }
@@ -0,0 +1,34 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+/**
+ * Chooses every piece independently, each type equally likely.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class UniformGenerator extends AbstractPieceGenerator {
+
+    /** The number of piece types; every Block except EMPTY. */
+    private static final int TYPES = Block.values().length - 1;
+
+    /**
+     * Creates a uniform generator.
+     * 
+     * @param theSeed the seed
+     */
+    public UniformGenerator(final long theSeed) {
+        super(theSeed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int generate() {
+        return Block.EMPTY.ordinal() + 1 + nextInt(TYPES);
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package simulation;
+
+import model.GameEngine;
+
+/**
+ * Chooses the moves of a simulated player. A single policy is shared by every game
+ * in a simulation run, so implementations must be stateless or thread safe.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public interface MovePolicy {
+
+    /**
+     * Makes the player's moves for one step of the game. The policy may move, rotate
+     * or drop the current piece through the engine; the runner steps the game after
+     * this method returns.
+     * 
+     * @param theEngine the game being played
+     */
+    void move(GameEngine theEngine);
+}
@@ -0,0 +1,177 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package simulation;
+
+/**
+ * The statistics gathered from a range of simulated games, one entry per seed.
+ * Each game writes only its own entries, so parallel games never merge results.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class SimulationResult {
+
+    /** The seed of the first game. */
+    private final long myFirstSeed;
+
+    /** The lines cleared in each game. */
+    private final int[] myLines;
+
+    /** The pieces frozen in each game. */
+    private final int[] myPieces;
+
+    /** The number of steps each game lasted. */
+    private final long[] mySteps;
+
+    /** The final score of each game. */
+    private final long[] myScores;
+
+    /** The final level of each game. */
+    private final int[] myLevels;
+
+    /**
+     * Creates empty statistics for the given range of seeds.
+     * 
+     * @param theFirstSeed the seed of the first game
+     * @param theGames the number of games
+     */
+    SimulationResult(final long theFirstSeed, final int theGames) {
+        myFirstSeed = theFirstSeed;
+        myLines = new int[theGames];
+        myPieces = new int[theGames];
+        mySteps = new long[theGames];
+        myScores = new long[theGames];
+        myLevels = new int[theGames];
+    }
+
+    /**
+     * Records the statistics of one game.
+     * 
+     * @param theGame the index of the game within the range
+     * @param theLines the lines cleared
+     * @param thePieces the pieces frozen
+     * @param theSteps the number of steps the game lasted
+     * @param theScore the final score
+     * @param theLevel the final level
+     */
+    void record(final int theGame, final int theLines, final int thePieces,
+                final long theSteps, final long theScore, final int theLevel) {
+        myLines[theGame] = theLines;
+        myPieces[theGame] = thePieces;
+        mySteps[theGame] = theSteps;
+        myScores[theGame] = theScore;
+        myLevels[theGame] = theLevel;
+    }
+
+    /**
+     * @return the seed of the first game
+     */
+    public long getFirstSeed() {
+        return myFirstSeed;
+    }
+
+    /**
+     * @return the number of games played
+     */
+    public int getGames() {
+        return myLines.length;
+    }
+
+    /**
+     * @param theGame the index of the game within the range
+     * @return the lines cleared in the game
+     */
+    public int getLines(final int theGame) {
+        return myLines[theGame];
+    }
+
+    /**
+     * @param theGame the index of the game within the range
+     * @return the pieces frozen in the game
+     */
+    public int getPieces(final int theGame) {
+        return myPieces[theGame];
+    }
+
+    /**
+     * @param theGame the index of the game within the range
+     * @return the number of steps the game lasted
+     */
+    public long getSteps(final int theGame) {
+        return mySteps[theGame];
+    }
+
+    /**
+     * @param theGame the index of the game within the range
+     * @return the final score of the game
+     */
+    public long getScore(final int theGame) {
+        return myScores[theGame];
+    }
+
+    /**
+     * @param theGame the index of the game within the range
+     * @return the final level of the game
+     */
+    public int getLevel(final int theGame) {
+        return myLevels[theGame];
+    }
+
+    /**
+     * @return the lines cleared in every game
+     */
+    public long getTotalLines() {
+        long result = 0;
+        for (final int lines : myLines) {
+            result += lines;
+        }
+        return result;
+    }
+
+    /**
+     * @return the pieces frozen in every game
+     */
+    public long getTotalPieces() {
+        long result = 0;
+        for (final int pieces : myPieces) {
+            result += pieces;
+        }
+        return result;
+    }
+
+    /**
+     * @return the steps played in every game
+     */
+    public long getTotalSteps() {
+        long result = 0;
+        for (final long steps : mySteps) {
+            result += steps;
+        }
+        return result;
+    }
+
+    /**
+     * @return the score of every game
+     */
+    public long getTotalScore() {
+        long result = 0;
+        for (final long score : myScores) {
+            result += score;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        final double games = Math.max(1, getGames());
+        return String.format("%d games from seed %d: %.2f lines, %.2f pieces, "
+                             + "%.2f steps, %.2f points per game", getGames(), myFirstSeed,
+                             getTotalLines() / games, getTotalPieces() / games,
+                             getTotalSteps() / games, getTotalScore() / games);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import model.GameEngine;
+import model.GeneratorType;
+import model.ScoringRule;
+
+/**
+ * Plays many independent games at once on a fork/join pool. Every game runs on its own
+ * GameEngine seeded with its own seed, so a run is reproducible regardless of how the
+ * games are spread across threads.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public final class SimulationRunner {
+
+    /** The number of games a task plays itself instead of splitting further. */
+    private static final int GAMES_PER_TASK = 16;
+
+    /**
+     * The pool shared by every runner that is not given one, so creating runners does
+     * not leave idle worker threads behind. Its workers are daemon threads.
+     */
+    private static final ForkJoinPool SHARED_POOL = new ForkJoinPool();
+
+    /** The pool the games are played on. */
+    private final ForkJoinPool myPool;
+
+    /** The width of every simulated board. */
+    private final int myWidth;
+
+    /** The height of every simulated board. */
+    private final int myHeight;
+
+    /** The most steps a game may last before it is stopped. */
+    private final long myMaxSteps;
+
+    /** The way every game chooses its random pieces. */
+    private final GeneratorType myGeneratorType;
+
+    /** The rule every game is scored by. */
+    private final ScoringRule myScoringRule;
+
+    /**
+     * Creates a runner with uniformly random pieces that uses every available core on
+     * a pool shared with other runners.
+     * 
+     * @param theWidth the width of every simulated board
+     * @param theHeight the height of every simulated board
+     * @param theMaxSteps the most steps a game may last before it is stopped
+     */
+    public SimulationRunner(final int theWidth, final int theHeight, final long theMaxSteps) {
+        this(theWidth, theHeight, theMaxSteps, GeneratorType.UNIFORM, SHARED_POOL);
+    }
+
+    /**
+     * Creates a runner with uniformly random pieces that plays on the given pool.
+     * 
+     * @param theWidth the width of every simulated board
+     * @param theHeight the height of every simulated board
+     * @param theMaxSteps the most steps a game may last before it is stopped
+     * @param thePool the pool to play the games on
+     */
+    public SimulationRunner(final int theWidth, final int theHeight, final long theMaxSteps,
+                            final ForkJoinPool thePool) {
+        this(theWidth, theHeight, theMaxSteps, GeneratorType.UNIFORM, thePool);
+    }
+
+    /**
+     * Creates a runner that plays its games on the given pool.
+     * 
+     * @param theWidth the width of every simulated board
+     * @param theHeight the height of every simulated board
+     * @param theMaxSteps the most steps a game may last before it is stopped
+     * @param theGeneratorType the way every game chooses its random pieces
+     * @param thePool the pool to play the games on
+     */
+    public SimulationRunner(final int theWidth, final int theHeight, final long theMaxSteps,
+                            final GeneratorType theGeneratorType, final ForkJoinPool thePool) {
+        this(theWidth, theHeight, theMaxSteps, theGeneratorType, ScoringRule.ORIGINAL,
+             thePool);
+    }
+
+    /**
+     * Creates a runner that scores its games with the given rule and plays them on the
+     * given pool.
+     * 
+     * @param theWidth the width of every simulated board
+     * @param theHeight the height of every simulated board
+     * @param theMaxSteps the most steps a game may last before it is stopped
+     * @param theGeneratorType the way every game chooses its random pieces
+     * @param theScoringRule the rule every game is scored by
+     * @param thePool the pool to play the games on
+     */
+    public SimulationRunner(final int theWidth, final int theHeight, final long theMaxSteps,
+                            final GeneratorType theGeneratorType,
+                            final ScoringRule theScoringRule, final ForkJoinPool thePool) {
+        if (theMaxSteps < 1 || theGeneratorType == null || theScoringRule == null) {
+            throw new IllegalArgumentException();
+        }
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myMaxSteps = theMaxSteps;
+        myGeneratorType = theGeneratorType;
+        myScoringRule = theScoringRule;
+        myPool = thePool;
+    }
+
+    /**
+     * Plays one game for every seed in a range and gathers their statistics.
+     * 
+     * @param theFirstSeed the seed of the first game
+     * @param theGames the number of games, using consecutive seeds
+     * @param thePolicy the policy choosing the moves of every game
+     * @return the statistics of each game
+     */
+    public SimulationResult run(final long theFirstSeed, final int theGames,
+                                final MovePolicy thePolicy) {
+        if (theGames < 0 || thePolicy == null) {
+            throw new IllegalArgumentException();
+        }
+        final SimulationResult result = new SimulationResult(theFirstSeed, theGames);
+        myPool.invoke(new GamesTask(result, thePolicy, 0, theGames));
+        return result;
+    }
+
+    /**
+     * Plays a single game until it ends or reaches the step limit.
+     * 
+     * @param theResult the statistics to record the game in
+     * @param thePolicy the policy choosing the moves
+     * @param theGame the index of the game within the range
+     */
+    private void playGame(final SimulationResult theResult, final MovePolicy thePolicy,
+                          final int theGame) {
+        final GameEngine engine = new GameEngine(myWidth, myHeight, myGeneratorType.create(
+                                                 theResult.getFirstSeed() + theGame),
+                                                 myScoringRule);
+        long steps = 0;
+        while (!engine.isGameOver() && steps < myMaxSteps) {
+            thePolicy.move(engine);
+            engine.step();
+            steps++;
+        }
+        theResult.record(theGame, engine.getLinesCleared(), engine.getPiecesLocked(), steps,
+                         engine.getScore(), engine.getLevel());
+    }
+
+    /**
+     * A task that plays a range of games, splitting it in half until it is small.
+     */
+    private final class GamesTask extends RecursiveAction {
+
+        /** A generated serial version UID for object Serialization. */
+        private static final long serialVersionUID = 6129433418254032071L;
+
+        /** The statistics to record the games in. */
+        private final SimulationResult myResult;
+
+        /** The policy choosing the moves. */
+        private final MovePolicy myPolicy;
+
+        /** The index of the first game of the range. */
+        private final int myStart;
+
+        /** The index after the last game of the range. */
+        private final int myEnd;
+
+        /**
+         * Creates a task for a range of games.
+         * 
+         * @param theResult the statistics to record the games in
+         * @param thePolicy the policy choosing the moves
+         * @param theStart the index of the first game of the range
+         * @param theEnd the index after the last game of the range
+         */
+        GamesTask(final SimulationResult theResult, final MovePolicy thePolicy,
+                  final int theStart, final int theEnd) {
+            super();
+            myResult = theResult;
+            myPolicy = thePolicy;
+            myStart = theStart;
+            myEnd = theEnd;
+        }
+
+        /**
+         * Plays the games of the range or splits it between two subtasks.
+         */
+        @Override
+        protected void compute() {
+            if (myEnd - myStart <= GAMES_PER_TASK) {
+                for (int game = myStart; game < myEnd; game++) {
+                    playGame(myResult, myPolicy, game);
+                }
+            } else {
+                final int middle = (myStart + myEnd) >>> 1;
+                invokeAll(new GamesTask(myResult, myPolicy, myStart, middle),
+                          new GamesTask(myResult, myPolicy, middle, myEnd));
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+import model.BoardSnapshot;
+
+/**
+ * A canvas the game loop draws on directly. Frames are drawn into a buffer strategy,
+ * which uses accelerated page flipping or blitting where the platform offers it, and
+ * shown as soon as they are finished instead of waiting for the repaint manager. The
+ * system's own requests to paint, such as when the window is uncovered, are passed on
+ * so that the game loop can draw a fresh frame.
+ *
+ * @author James Brewer
+ * @version B
+ */
+@SuppressWarnings("serial")
+final class ActiveCanvas extends Canvas {
+
+    /**
+     * The number of buffers in the strategy.
+     */
+    private static final int BUFFERS = 2;
+
+    /**
+     * The renderer that draws each frame.
+     */
+    private final BoardRenderer myRenderer;
+
+    /**
+     * Asks the game loop for a new frame.
+     */
+    private final Runnable myExposeListener;
+
+    /**
+     * The buffer strategy, or null while the canvas is not displayable.
+     */
+    private volatile BufferStrategy myStrategy;
+
+    /**
+     * Creates a canvas.
+     *
+     * @param theRenderer The renderer that draws each frame.
+     * @param theExposeListener Asks the game loop for a new frame when the system needs
+     *            the canvas painted.
+     */
+    ActiveCanvas(final BoardRenderer theRenderer, final Runnable theExposeListener) {
+        super();
+        myRenderer = theRenderer;
+        myExposeListener = theExposeListener;
+        setFocusable(false);
+    }
+
+    /**
+     * Creates the buffer strategy once the canvas can be displayed.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(BUFFERS);
+        myStrategy = getBufferStrategy();
+    }
+
+    /**
+     * Drops the buffer strategy before the canvas stops being displayable.
+     */
+    @Override
+    public void removeNotify() {
+        myStrategy = null;
+        super.removeNotify();
+    }
+
+    /**
+     * Asks the game loop for a new frame rather than painting here.
+     *
+     * @param theGraphics Unused.
+     */
+    @Override
+    public void paint(final Graphics theGraphics) {
+        myExposeListener.run();
+    }
+
+    /**
+     * Asks the game loop for a new frame without clearing the canvas first.
+     *
+     * @param theGraphics Unused.
+     */
+    @Override
+    public void update(final Graphics theGraphics) {
+        myExposeListener.run();
+    }
+
+    /**
+     * Draws and shows a frame. Called only on the game loop thread.
+     *
+     * @param theSnapshot The snapshot of the board to draw.
+     * @return true if the frame was shown, false if the canvas cannot be drawn on yet
+     */
+    boolean render(final BoardSnapshot theSnapshot) {
+        final BufferStrategy strategy = myStrategy;
+        boolean result = strategy != null && getWidth() > 0 && getHeight() > 0;
+        if (result) {
+            try {
+                do {
+                    do {
+                        final Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                        try {
+                            g2d.setBackground(getBackground());
+                            myRenderer.render(g2d, theSnapshot, getWidth(), getHeight());
+                        } finally {
+                            g2d.dispose();
+                        }
+                    } while (strategy.contentsRestored());
+                    strategy.show();
+                } while (strategy.contentsLost());
+                Toolkit.getDefaultToolkit().sync();
+            } catch (final IllegalStateException exception) {
+                //The canvas stopped being displayable while the frame was drawn
+                result = false;
+            }
+        }
+        return result;
+    }
+}
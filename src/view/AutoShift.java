@@ -0,0 +1,260 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.util.concurrent.TimeUnit;
+
+import model.Board;
+import model.Piece;
+
+/**
+ * Repeats held movement keys from their key-down and key-up state instead of relying
+ * on the operating system's key repeat. A held left or right key shifts the piece
+ * once, waits for the delayed auto-shift (DAS), then shifts again at the auto-repeat
+ * rate (ARR); a held down key soft drops at its own rate. A rate of 0 moves the piece
+ * as far as it can go at once. Time is measured in nanoseconds by the game loop,
+ * which also asks when the next repeat is due so that it can wake up exactly then.
+ *
+ * The rates may be changed from any thread; everything else is called only on the
+ * game loop thread.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class AutoShift {
+
+    /** The default delayed auto-shift in milliseconds. */
+    static final int DEFAULT_DAS = 170;
+
+    /** The default auto-repeat rate in milliseconds. */
+    static final int DEFAULT_ARR = 50;
+
+    /** The default soft drop rate in milliseconds. */
+    static final int DEFAULT_SOFT_DROP = 50;
+
+    /** The value returned when no repeat is pending. */
+    static final long NEVER = Long.MAX_VALUE;
+
+    /** The delay before a held shift starts repeating, in milliseconds. */
+    private volatile int myDas = DEFAULT_DAS;
+
+    /** The time between repeated shifts, in milliseconds. */
+    private volatile int myArr = DEFAULT_ARR;
+
+    /** The time between repeated soft drops, in milliseconds. */
+    private volatile int mySoftDrop = DEFAULT_SOFT_DROP;
+
+    /** Whether the left key is held. */
+    private boolean myLeftHeld;
+
+    /** Whether the right key is held. */
+    private boolean myRightHeld;
+
+    /** The direction of the held shift: -1 for left, 1 for right, 0 for none. */
+    private int myDirection;
+
+    /** The time left until the next repeated shift. */
+    private long myShiftWait;
+
+    /** Whether the down key is held. */
+    private boolean myDropHeld;
+
+    /** The time left until the next repeated soft drop. */
+    private long myDropWait;
+
+    /**
+     * @return the delayed auto-shift in milliseconds
+     */
+    int getDas() {
+        return myDas;
+    }
+
+    /**
+     * @return the auto-repeat rate in milliseconds
+     */
+    int getArr() {
+        return myArr;
+    }
+
+    /**
+     * @return the soft drop rate in milliseconds
+     */
+    int getSoftDrop() {
+        return mySoftDrop;
+    }
+
+    /**
+     * Changes the repeat timing.
+     *
+     * @param theDas the delayed auto-shift in milliseconds
+     * @param theArr the auto-repeat rate in milliseconds, 0 to shift to the wall
+     * @param theSoftDrop the soft drop rate in milliseconds, 0 to drop to the floor
+     */
+    void setRates(final int theDas, final int theArr, final int theSoftDrop) {
+        if (theDas < 0 || theArr < 0 || theSoftDrop < 0) {
+            throw new IllegalArgumentException();
+        }
+        myDas = theDas;
+        myArr = theArr;
+        mySoftDrop = theSoftDrop;
+    }
+
+    /**
+     * Starts a held shift, moving the piece once right away.
+     *
+     * @param theDirection -1 for left, 1 for right
+     * @param theBoard the board
+     */
+    void pressShift(final int theDirection, final Board theBoard) {
+        if (theDirection < 0) {
+            myLeftHeld = true;
+        } else {
+            myRightHeld = true;
+        }
+        myDirection = theDirection;
+        shift(theBoard);
+        myShiftWait = TimeUnit.MILLISECONDS.toNanos(myDas);
+        advance(0, theBoard);
+    }
+
+    /**
+     * Ends a held shift. If the other direction is still held it takes over, starting
+     * with the full delay.
+     *
+     * @param theDirection -1 for left, 1 for right
+     */
+    void releaseShift(final int theDirection) {
+        if (theDirection < 0) {
+            myLeftHeld = false;
+        } else {
+            myRightHeld = false;
+        }
+        if (myDirection == theDirection) {
+            if (myLeftHeld || myRightHeld) {
+                myDirection = -theDirection;
+                myShiftWait = TimeUnit.MILLISECONDS.toNanos(myDas);
+            } else {
+                myDirection = 0;
+            }
+        }
+    }
+
+    /**
+     * Starts a held soft drop, moving the piece down once right away. A soft drop never
+     * locks the piece; a landed piece is left to the lock delay of the game loop.
+     *
+     * @param theBoard the board
+     */
+    void pressSoftDrop(final Board theBoard) {
+        myDropHeld = true;
+        theBoard.softDrop(1);
+        myDropWait = TimeUnit.MILLISECONDS.toNanos(mySoftDrop);
+        advance(0, theBoard);
+    }
+
+    /**
+     * Ends a held soft drop.
+     */
+    void releaseSoftDrop() {
+        myDropHeld = false;
+    }
+
+    /**
+     * Forgets every held key, such as when the game is paused.
+     */
+    void reset() {
+        myLeftHeld = false;
+        myRightHeld = false;
+        myDirection = 0;
+        myDropHeld = false;
+    }
+
+    /**
+     * Repeats the held movements that have come due.
+     *
+     * @param theNanos the time passed since the last call
+     * @param theBoard the board
+     */
+    void advance(final long theNanos, final Board theBoard) {
+        if (myDirection != 0) {
+            myShiftWait -= theNanos;
+            final long arr = TimeUnit.MILLISECONDS.toNanos(myArr);
+            int shifts = 0;
+            boolean due = myShiftWait <= 0;
+            while (due && !theBoard.isGameOver()) {
+                if (arr == 0 || shifts == theBoard.getWidth()) {
+                    // shift to the wall and drop any backlog of repeats
+                    while (shift(theBoard)) {
+                        shifts++;
+                    }
+                    myShiftWait = arr;
+                    due = false;
+                } else {
+                    shift(theBoard);
+                    shifts++;
+                    myShiftWait += arr;
+                    due = myShiftWait <= 0;
+                }
+            }
+        }
+        if (myDropHeld) {
+            myDropWait -= theNanos;
+            final long rate = TimeUnit.MILLISECONDS.toNanos(mySoftDrop);
+            int drops = 0;
+            boolean due = myDropWait <= 0;
+            while (due && !theBoard.isGameOver()) {
+                if (rate == 0 || drops == theBoard.getHeight()) {
+                    // drop to the floor without locking and drop any backlog
+                    final int distance = theBoard.getDropDistance();
+                    if (distance > 0) {
+                        theBoard.softDrop(distance);
+                    }
+                    myDropWait = rate;
+                    due = false;
+                } else {
+                    theBoard.softDrop(1);
+                    drops++;
+                    myDropWait += rate;
+                    due = myDropWait <= 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns how long until the next repeat is due. A rate of 0 repeats on every
+     * call to advance, so it does not need to be woken for.
+     *
+     * @return the time until the next repeat, or NEVER if none is pending
+     */
+    long getNanosToNext() {
+        long result = NEVER;
+        if (myDirection != 0 && myShiftWait > 0) {
+            result = myShiftWait;
+        }
+        if (myDropHeld && myDropWait > 0) {
+            result = Math.min(result, myDropWait);
+        }
+        return result;
+    }
+
+    /**
+     * Shifts the piece once in the held direction.
+     *
+     * @param theBoard the board
+     * @return true if the piece moved
+     */
+    private boolean shift(final Board theBoard) {
+        final Piece piece = theBoard.getCurrentPiece();
+        final int x = piece.getX();
+        if (myDirection < 0) {
+            theBoard.moveLeft();
+        } else {
+            theBoard.moveRight();
+        }
+        return theBoard.getCurrentPiece() == piece && piece.getX() != x;
+    }
+}
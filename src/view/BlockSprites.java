@@ -0,0 +1,154 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import model.Block;
+
+/**
+ * The pre-drawn images of every block type at one cell size, so a block is drawn with
+ * a single image copy instead of a fill, a border and a new darker color. A set of
+ * sprites never changes after it is built; a new set is built when the cell size
+ * changes.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class BlockSprites {
+
+    /**
+     * The thickness of the block borders.
+     */
+    private static final int BORDER_WIDTH = 2;
+
+    /**
+     * The values of Block, indexed by ordinal.
+     */
+    private static final Block[] BLOCKS = Block.values();
+
+    /**
+     * The side length of a block in pixels.
+     */
+    private final int mySide;
+
+    /**
+     * The image of each block type, indexed by ordinal; null for EMPTY.
+     */
+    private final Image[] myBlocks = new Image[BLOCKS.length];
+
+    /**
+     * The ghost outline of each block type, indexed by ordinal; null for EMPTY.
+     */
+    private final Image[] myGhosts = new Image[BLOCKS.length];
+
+    /**
+     * Draws the sprites for a cell size.
+     *
+     * @param theSide The side length of a block in pixels.
+     */
+    BlockSprites(final int theSide) {
+        mySide = theSide;
+        if (theSide > 0) {
+            for (final Block block : BLOCKS) {
+                if (block != Block.EMPTY) {
+                    final Color color = block.getColor();
+                    myBlocks[block.ordinal()] = drawSprite(color, color.darker(),
+                                                           Transparency.OPAQUE);
+                    myGhosts[block.ordinal()] = drawSprite(null, color.darker(),
+                                                           Transparency.BITMASK);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The side length of a block in pixels.
+     */
+    int getSide() {
+        return mySide;
+    }
+
+    /**
+     * Returns the image of a block.
+     *
+     * @param theBlock The block type, not EMPTY.
+     * @return The image, or null if the cell size is 0.
+     */
+    Image getBlock(final Block theBlock) {
+        return myBlocks[theBlock.ordinal()];
+    }
+
+    /**
+     * Returns the ghost outline of a block.
+     *
+     * @param theBlock The block type, not EMPTY.
+     * @return The image, or null if the cell size is 0.
+     */
+    Image getGhost(final Block theBlock) {
+        return myGhosts[theBlock.ordinal()];
+    }
+
+    /**
+     * Draws one sprite.
+     *
+     * @param theFill The fill color, or null to leave the inside transparent.
+     * @param theBorder The border color.
+     * @param theTransparency The transparency of the image.
+     * @return The sprite.
+     */
+    private Image drawSprite(final Color theFill, final Color theBorder,
+                             final int theTransparency) {
+        final BufferedImage sprite = createImage(mySide, mySide, theTransparency);
+        final Graphics2D g2d = sprite.createGraphics();
+        try {
+            if (theFill != null) {
+                g2d.setColor(theFill);
+                g2d.fillRect(0, 0, mySide, mySide);
+            }
+            g2d.setStroke(new BasicStroke(BORDER_WIDTH));
+            g2d.setColor(theBorder);
+            g2d.drawRect(1, 1, mySide - 1, mySide - 1);
+        } finally {
+            g2d.dispose();
+        }
+        return sprite;
+    }
+
+    /**
+     * Creates an image in the screen's own format where there is a screen, so copying it
+     * needs no conversion.
+     *
+     * @param theWidth The width of the image.
+     * @param theHeight The height of the image.
+     * @param theTransparency The transparency of the image.
+     * @return The empty image.
+     */
+    static BufferedImage createImage(final int theWidth, final int theHeight,
+                                     final int theTransparency) {
+        final BufferedImage result;
+        if (GraphicsEnvironment.isHeadless()) {
+            final int type;
+            if (theTransparency == Transparency.OPAQUE) {
+                type = BufferedImage.TYPE_INT_RGB;
+            } else {
+                type = BufferedImage.TYPE_INT_ARGB;
+            }
+            result = new BufferedImage(theWidth, theHeight, type);
+        } else {
+            result = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                            .getDefaultScreenDevice().getDefaultConfiguration()
+                            .createCompatibleImage(theWidth, theHeight, theTransparency);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,618 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import model.Block;
+import model.BoardSnapshot;
+
+/**
+ * Draws a frame of the game from a board snapshot. The same renderer serves the Swing
+ * panel, which draws on the event dispatch thread, and the active canvas, which draws
+ * on the game loop thread, so its settings may be changed from any thread.
+ *
+ * A frame is composed from layers. The background layer holds the background and the
+ * grid and is only drawn again when the size, the grid or the background change. The
+ * frozen layer is a copy of the background with the frozen blocks drawn on it; frozen
+ * rows only change when a piece locks, so each frame redraws just the rows that are
+ * not shared with the snapshot drawn last. The ghost and the current piece are then
+ * drawn on top, which leaves a steady frame at one image copy and a few blocks. Only
+ * the part of the frame inside the clip of the graphics is copied, so a repaint of a
+ * few changed cells costs little more than those cells.
+ *
+ * The layers for a new size are built on a background thread. Until they are ready
+ * the layers of the old size are kept up to date and drawn stretched to the new size,
+ * and the listener given to the renderer is told once a frame can be drawn with the
+ * new layers.
+ *
+ * A board larger than the drawing area is shown through a viewport that follows the
+ * current piece and can be scrolled. Only the rows and columns inside the viewport
+ * are ever drawn, so the time to draw a frame depends on the size of the drawing area
+ * and not on the size of the board.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class BoardRenderer {
+
+    /**
+     * The viewport keeps the current piece this fraction of its size away from its
+     * edges: 1 / FOLLOW_MARGIN.
+     */
+    private static final int FOLLOW_MARGIN = 4;
+
+    /**
+     * Builds layers in the background, one size at a time.
+     */
+    private static final ExecutorService BUILDER =
+                    Executors.newSingleThreadExecutor(new ThreadFactory() {
+                        /**
+                         * Creates the builder thread, which does not keep the program
+                         * running.
+                         *
+                         * @param theTask The task the thread runs.
+                         * @return The thread.
+                         */
+                        @Override
+                        public Thread newThread(final Runnable theTask) {
+                            final Thread thread = new Thread(theTask, "Layer builder");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+
+    /**
+     * Told when layers for a new size are ready to be drawn.
+     */
+    private final Runnable myReadyListener;
+
+    /**
+     * The side length of a block in pixels.
+     */
+    private volatile int myBlockSide;
+
+    /**
+     * Whether the grid is drawn.
+     */
+    private volatile boolean myGridDraw;
+
+    /**
+     * Whether the ghost piece is drawn.
+     */
+    private volatile boolean myGhostDraw = true;
+
+    /**
+     * The message drawn over the board, or null for none.
+     */
+    private volatile String myMessage;
+
+    /**
+     * The color of the message.
+     */
+    private volatile Color myMessageColor = Color.BLACK;
+
+    /**
+     * The layers being drawn with, or null before the first frame.
+     */
+    private FrameLayers myLayers;
+
+    /**
+     * Layers built in the background and not yet drawn with, or null.
+     */
+    private volatile FrameLayers myReady;
+
+    /**
+     * The number of times layers have been asked for, so a build that has been
+     * overtaken by a newer size can be skipped.
+     */
+    private volatile int myRequests;
+
+    /**
+     * The settings of the layers last asked for, or null.
+     */
+    private List<Object> myRequested;
+
+    /**
+     * The snapshot whose frozen blocks are in the frozen layer, or null if none are.
+     */
+    private BoardSnapshot myLayerSnapshot;
+
+    /**
+     * The width of the drawing area of the last frame.
+     */
+    private int myAreaWidth;
+
+    /**
+     * The height of the drawing area of the last frame.
+     */
+    private int myAreaHeight;
+
+    /**
+     * The first column inside the viewport.
+     */
+    private int myViewColumn;
+
+    /**
+     * The first row inside the viewport, counted down from the top of the board.
+     */
+    private int myViewRow;
+
+    /**
+     * The rows that can be scrolled past: the board height less the rows that fit.
+     */
+    private int myScrollRows;
+
+    /**
+     * The viewport column the frozen layer was drawn from.
+     */
+    private int myLayerColumn;
+
+    /**
+     * The viewport row the frozen layer was drawn from.
+     */
+    private int myLayerRow;
+
+    /**
+     * Creates a renderer.
+     *
+     * @param theBlockSide The side length of a block in pixels.
+     * @param theReadyListener Told, on the builder thread, when layers for a new size
+     *            are ready, so a new frame can be asked for.
+     */
+    BoardRenderer(final int theBlockSide, final Runnable theReadyListener) {
+        myBlockSide = theBlockSide;
+        myReadyListener = theReadyListener;
+    }
+
+    /**
+     * Sets the side length of a block. The block images for it are built with the
+     * layers for the next frame.
+     *
+     * @param theBlockSide The side length in pixels.
+     */
+    void setBlockSide(final int theBlockSide) {
+        myBlockSide = theBlockSide;
+    }
+
+    /**
+     * @return Whether the grid is drawn.
+     */
+    boolean isGridDraw() {
+        return myGridDraw;
+    }
+
+    /**
+     * Sets whether to draw the grid.
+     *
+     * @param theGrid Whether to draw the grid.
+     */
+    void setGridDraw(final boolean theGrid) {
+        myGridDraw = theGrid;
+    }
+
+    /**
+     * Sets whether to draw the ghost piece.
+     *
+     * @param theGhost Whether to draw the ghost piece.
+     */
+    void setGhostDraw(final boolean theGhost) {
+        myGhostDraw = theGhost;
+    }
+
+    /**
+     * Sets the message drawn over the board.
+     *
+     * @param theMessage The message, or null for none.
+     * @param theColor The color of the message.
+     */
+    void setMessage(final String theMessage, final Color theColor) {
+        myMessageColor = theColor;
+        myMessage = theMessage;
+    }
+
+    /**
+     * @return Whether the last frame was stretched from layers of another size, so
+     *         the cells of the board are not where getPixelBounds() says.
+     */
+    synchronized boolean isScaled() {
+        return myLayers == null || myLayers.getWidth() != myAreaWidth
+               || myLayers.getHeight() != myAreaHeight;
+    }
+
+    /**
+     * Moves the viewport so the current piece stays inside it, keeping a margin from
+     * its edges where the board is larger than the drawing area of the last frame.
+     *
+     * @param theSnapshot The snapshot of the board.
+     * @return true if the viewport moved.
+     */
+    synchronized boolean follow(final BoardSnapshot theSnapshot) {
+        boolean result = false;
+        if (myLayers != null) {
+            result = follow(theSnapshot, myLayers);
+        }
+        return result;
+    }
+
+    /**
+     * Scrolls the viewport up or down. The viewport follows the piece again once it
+     * would leave the view.
+     *
+     * @param theRows The number of rows to scroll down, or up if negative.
+     * @return true if the viewport moved.
+     */
+    synchronized boolean scroll(final int theRows) {
+        final int row = Math.max(0, Math.min(myViewRow + theRows, myScrollRows));
+        final boolean result = row != myViewRow;
+        myViewRow = row;
+        return result;
+    }
+
+    /**
+     * Returns the pixels of the drawing area that show a block of cells.
+     *
+     * @param theSnapshot The snapshot of the board.
+     * @param theCells The bounds of blocks of cells as BoardSnapshot.getChangedCells
+     *            returns them, counting rows up from the bottom of the board.
+     * @param theIndex The index of the block's first value.
+     * @return The pixel bounds; the extra pixel covers the grid line.
+     */
+    synchronized Rectangle getPixelBounds(final BoardSnapshot theSnapshot,
+                                          final int[] theCells, final int theIndex) {
+        int side = myBlockSide;
+        if (myLayers != null) {
+            side = myLayers.getSprites().getSide();
+        }
+        final int x = theCells[theIndex];
+        final int y = theCells[theIndex + 1];
+        final int width = theCells[theIndex + 2];
+        final int height = theCells[theIndex + 3];
+        return new Rectangle((x - myViewColumn) * side,
+                             (theSnapshot.getHeight() - y - height - myViewRow) * side,
+                             width * side + 1, height * side + 1);
+    }
+
+    /**
+     * Draws a frame over the whole drawing area, using the background color of the
+     * graphics for the empty cells. The layers are shared by every caller, so frames
+     * are drawn one at a time.
+     *
+     * @param theG2d The graphics controller.
+     * @param theSnapshot The snapshot of the board to draw.
+     * @param theWidth The width of the drawing area.
+     * @param theHeight The height of the drawing area.
+     */
+    synchronized void render(final Graphics2D theG2d, final BoardSnapshot theSnapshot,
+                             final int theWidth, final int theHeight) {
+        //Plain rectangles gain nothing from antialiasing, so only the text uses it
+        theG2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                                RenderingHints.VALUE_ANTIALIAS_OFF);
+        myAreaWidth = theWidth;
+        myAreaHeight = theHeight;
+        if (theWidth > 0 && theHeight > 0) {
+            final FrameLayers layers = prepareLayers(theSnapshot, theWidth, theHeight,
+                                                     theG2d.getBackground());
+            final BlockSprites sprites = layers.getSprites();
+            if (layers.getWidth() == theWidth && layers.getHeight() == theHeight) {
+                drawFrozen(theG2d, layers.getFrozen(), theWidth, theHeight);
+                if (sprites.getSide() > 0) {
+                    drawPiece(theG2d, theSnapshot, sprites);
+                }
+            } else {
+                //The layers of this size are not built yet, so stretch the old ones
+                final AffineTransform transform = theG2d.getTransform();
+                theG2d.scale(theWidth / (double) layers.getWidth(),
+                             theHeight / (double) layers.getHeight());
+                theG2d.drawImage(layers.getFrozen(), 0, 0, null);
+                if (sprites.getSide() > 0) {
+                    drawPiece(theG2d, theSnapshot, sprites);
+                }
+                theG2d.setTransform(transform);
+            }
+
+            final String message = myMessage;
+            if (message != null) {
+                theG2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                                        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                paintWord(theG2d, message, myMessageColor, layers, theWidth, theHeight);
+            }
+        }
+    }
+
+    /**
+     * Copies the part of the frozen layer inside the clip of the graphics.
+     *
+     * @param theG2d The graphics controller.
+     * @param theFrozen The frozen layer.
+     * @param theWidth The width of the drawing area.
+     * @param theHeight The height of the drawing area.
+     */
+    private void drawFrozen(final Graphics2D theG2d, final BufferedImage theFrozen,
+                            final int theWidth, final int theHeight) {
+        final Rectangle clip = theG2d.getClipBounds();
+        if (clip == null) {
+            theG2d.drawImage(theFrozen, 0, 0, null);
+        } else {
+            final int left = Math.max(clip.x, 0);
+            final int top = Math.max(clip.y, 0);
+            final int right = Math.min(clip.x + clip.width, theWidth);
+            final int bottom = Math.min(clip.y + clip.height, theHeight);
+            if (left < right && top < bottom) {
+                theG2d.drawImage(theFrozen, left, top, right, bottom,
+                                 left, top, right, bottom, null);
+            }
+        }
+    }
+
+    /**
+     * Brings the layers up to date with a snapshot. Layers built for the current
+     * settings are taken up if they are ready; otherwise they are asked for and the
+     * old layers are used one more frame. The first frame builds its layers at once,
+     * as there is nothing to show in the meantime. Then the frozen rows that changed
+     * are drawn.
+     *
+     * @param theSnapshot The snapshot of the board.
+     * @param theWidth The width of the drawing area.
+     * @param theHeight The height of the drawing area.
+     * @param theBackground The background color.
+     * @return The layers to draw the frame with.
+     */
+    private FrameLayers prepareLayers(final BoardSnapshot theSnapshot, final int theWidth,
+                                      final int theHeight, final Color theBackground) {
+        final int blockSide = myBlockSide;
+        final boolean grid = myGridDraw;
+        final FrameLayers ready = myReady;
+        if (ready != null && ready.matches(theWidth, theHeight, blockSide, grid,
+                                           theBackground)) {
+            myReady = null;
+            myRequested = null;
+            myLayers = ready;
+            myLayerSnapshot = null;
+            follow(theSnapshot, ready);
+        } else if (myLayers == null) {
+            myLayers = new FrameLayers(theWidth, theHeight, blockSide, grid, theBackground);
+            myLayerSnapshot = null;
+            follow(theSnapshot, myLayers);
+        } else if (!myLayers.matches(theWidth, theHeight, blockSide, grid, theBackground)) {
+            requestLayers(theWidth, theHeight, blockSide, grid, theBackground);
+        }
+        final FrameLayers layers = myLayers;
+
+        final BoardSnapshot last = myLayerSnapshot;
+        final BlockSprites sprites = layers.getSprites();
+        final int side = Math.max(sprites.getSide(), 1);
+        //The rows in the viewport, counted up from the bottom of the board
+        final int highest = theSnapshot.getHeight() - 1 - myViewRow;
+        final int lowest = Math.max(highest - (layers.getHeight() + side - 1) / side + 1, 0);
+        final Graphics2D g2d = layers.getFrozen().createGraphics();
+        try {
+            if (last == null || last.getWidth() != theSnapshot.getWidth()
+                            || last.getHeight() != theSnapshot.getHeight()
+                            || myLayerColumn != myViewColumn || myLayerRow != myViewRow) {
+                g2d.drawImage(layers.getBackground(), 0, 0, null);
+                final int rows = Math.min(theSnapshot.getRowCount() - 1, highest);
+                for (int y = lowest; y <= rows; y++) {
+                    drawRow(g2d, theSnapshot, layers, y, false);
+                }
+            } else if (last != theSnapshot) {
+                final int rows = Math.min(Math.max(last.getRowCount(),
+                                                   theSnapshot.getRowCount()) - 1, highest);
+                for (int y = lowest; y <= rows; y++) {
+                    if (!theSnapshot.isRowShared(last, y)) {
+                        drawRow(g2d, theSnapshot, layers, y, true);
+                    }
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+        myLayerSnapshot = theSnapshot;
+        myLayerColumn = myViewColumn;
+        myLayerRow = myViewRow;
+        return layers;
+    }
+
+    /**
+     * Asks the builder thread for layers, unless the same layers were asked for last.
+     * Asking for a new size while another is being built drops the older one.
+     *
+     * @param theWidth The width of the drawing area.
+     * @param theHeight The height of the drawing area.
+     * @param theBlockSide The side length of a block.
+     * @param theGrid Whether to draw the grid.
+     * @param theBackground The background color.
+     */
+    private void requestLayers(final int theWidth, final int theHeight,
+                               final int theBlockSide, final boolean theGrid,
+                               final Color theBackground) {
+        final List<Object> request = Arrays.<Object>asList(theWidth, theHeight, theBlockSide,
+                                                           theGrid, theBackground);
+        if (!request.equals(myRequested)) {
+            myRequested = request;
+            final int number = ++myRequests;
+            BUILDER.execute(new Runnable() {
+                /**
+                 * Builds the layers if nothing newer has been asked for.
+                 */
+                @Override
+                public void run() {
+                    if (number == myRequests) {
+                        final FrameLayers layers = new FrameLayers(theWidth, theHeight,
+                                                                   theBlockSide, theGrid,
+                                                                   theBackground);
+                        if (number == myRequests) {
+                            myReady = layers;
+                            myReadyListener.run();
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Moves the viewport so the current piece stays inside the area of a set of
+     * layers.
+     *
+     * @param theSnapshot The snapshot of the board.
+     * @param theLayers The layers the viewport is drawn on.
+     * @return true if the viewport moved.
+     */
+    private boolean follow(final BoardSnapshot theSnapshot, final FrameLayers theLayers) {
+        final int side = theLayers.getSprites().getSide();
+        boolean result = false;
+        if (side > 0) {
+            final int columns = Math.max(theLayers.getWidth() / side, 1);
+            final int rows = Math.max(theLayers.getHeight() / side, 1);
+            int left = Integer.MAX_VALUE;
+            int right = Integer.MIN_VALUE;
+            int top = Integer.MAX_VALUE;
+            int bottom = Integer.MIN_VALUE;
+            for (int i = 0; i < BoardSnapshot.PIECE_CELLS; i++) {
+                final int row = theSnapshot.getHeight() - 1 - theSnapshot.getPieceY(i);
+                left = Math.min(left, theSnapshot.getPieceX(i));
+                right = Math.max(right, theSnapshot.getPieceX(i));
+                top = Math.min(top, Math.max(row, 0));
+                bottom = Math.max(bottom, Math.max(row, 0));
+            }
+            final int column = followAxis(myViewColumn, columns, theSnapshot.getWidth(),
+                                          left, right);
+            final int row = followAxis(myViewRow, rows, theSnapshot.getHeight(), top, bottom);
+            result = column != myViewColumn || row != myViewRow;
+            myViewColumn = column;
+            myViewRow = row;
+            myScrollRows = Math.max(theSnapshot.getHeight() - rows, 0);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first cell of an axis of the viewport that keeps a span of cells
+     * inside it, moving as little as possible.
+     *
+     * @param theFirst The current first cell of the viewport.
+     * @param theVisible The number of cells that fit in the viewport.
+     * @param theSize The number of cells on the board.
+     * @param theLow The first cell of the span.
+     * @param theHigh The last cell of the span.
+     * @return The new first cell of the viewport.
+     */
+    private static int followAxis(final int theFirst, final int theVisible,
+                                  final int theSize, final int theLow, final int theHigh) {
+        final int margin = theVisible / FOLLOW_MARGIN;
+        int first = theFirst;
+        if (theLow < first + margin) {
+            first = theLow - margin;
+        } else if (theHigh > first + theVisible - 1 - margin) {
+            first = theHigh - theVisible + 1 + margin;
+        }
+        return Math.max(0, Math.min(first, theSize - theVisible));
+    }
+
+    /**
+     * Draws one frozen row onto the frozen layer.
+     *
+     * @param theG2d The graphics of the frozen layer.
+     * @param theSnapshot The snapshot of the board.
+     * @param theLayers The layers being drawn.
+     * @param theY The row, counted from the bottom.
+     * @param theClear Whether to restore the background under the row first.
+     */
+    private void drawRow(final Graphics2D theG2d, final BoardSnapshot theSnapshot,
+                         final FrameLayers theLayers, final int theY,
+                         final boolean theClear) {
+        final BlockSprites sprites = theLayers.getSprites();
+        final int side = sprites.getSide();
+        final int top = (theSnapshot.getHeight() - 1 - theY - myViewRow) * side;
+        if (side > 0 && top + side > 0) {
+            final int width = theLayers.getWidth();
+            if (theClear) {
+                theG2d.drawImage(theLayers.getBackground(), 0, top, width, top + side,
+                                 0, top, width, top + side, null);
+            }
+            if (theY < theSnapshot.getRowCount()) {
+                final int columns = Math.min(theSnapshot.getWidth(),
+                                             myViewColumn + (width + side - 1) / side);
+                for (int x = myViewColumn; x < columns; x++) {
+                    final Block block = theSnapshot.getBlock(x, theY);
+                    if (block != Block.EMPTY) {
+                        theG2d.drawImage(sprites.getBlock(block),
+                                         (x - myViewColumn) * side, top, null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a string in the center of the drawing area, with a given color.
+     *
+     * @param theG2d The graphics controller
+     * @param theMessage The string to be displayed
+     * @param theColor The color of the words printed
+     * @param theLayers The layers holding the font.
+     * @param theWidth The width of the drawing area.
+     * @param theHeight The height of the drawing area.
+     */
+    private void paintWord(final Graphics2D theG2d, final String theMessage,
+                           final Color theColor, final FrameLayers theLayers,
+                           final int theWidth, final int theHeight) {
+        theG2d.setColor(theColor);
+        theG2d.setFont(theLayers.getFont());
+        final Rectangle2D stringBounds =
+                                       theG2d.getFontMetrics().getStringBounds(theMessage,
+                                                                               theG2d);
+        theG2d.drawString(theMessage,
+                          (int) (theWidth / 2 - stringBounds.getWidth() / 2),
+                          (int) (theHeight / 2 - stringBounds.getHeight() / 2));
+    }
+
+    /**
+     * Draws the ghost piece and the current piece of a snapshot.
+     *
+     * @param theG2d The graphics controller
+     * @param theSnapshot The snapshot of the board
+     * @param theSprites The block images
+     */
+    private void drawPiece(final Graphics2D theG2d, final BoardSnapshot theSnapshot,
+                           final BlockSprites theSprites) {
+        final int boardHeightIndex = theSnapshot.getHeight() - 1 - myViewRow;
+        final int left = myViewColumn;
+        final int blkSide = theSprites.getSide();
+        final Block current = theSnapshot.getPieceBlock();
+        final int dropDistance = theSnapshot.getDropDistance();
+
+        //Draw the outline of where the current piece will land
+        if (myGhostDraw && dropDistance > 0) {
+            final Image ghost = theSprites.getGhost(current);
+            for (int i = 0; i < BoardSnapshot.PIECE_CELLS; i++) {
+                theG2d.drawImage(ghost, (theSnapshot.getPieceX(i) - left) * blkSide,
+                                 (boardHeightIndex - theSnapshot.getPieceY(i) + dropDistance)
+                                 * blkSide, null);
+            }
+        }
+
+        //Draw the current piece
+        final Image piece = theSprites.getBlock(current);
+        for (int i = 0; i < BoardSnapshot.PIECE_CELLS; i++) {
+            theG2d.drawImage(piece, (theSnapshot.getPieceX(i) - left) * blkSide,
+                             (boardHeightIndex - theSnapshot.getPieceY(i)) * blkSide, null);
+        }
+    }
+}
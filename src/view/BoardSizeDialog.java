@@ -16,9 +16,15 @@ import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import model.GameEngine;
+import model.GeneratorType;
 
 /**
- * A dialog for choosing the size of the board.
+ * A dialog for choosing the size of the board and, for a new board, the way its
+ * pieces are chosen.
  * 
  * @author James Brewer
  * @version B
@@ -28,21 +34,57 @@ import javax.swing.JLabel;
 public class BoardSizeDialog extends JDialog {
     
     /**
-     * An array of possible values to pick from.
+     * The width first offered.
+     */
+    private static final int DEFAULT_WIDTH = 10;
+
+    /**
+     * The height first offered.
+     */
+    private static final int DEFAULT_HEIGHT = 20;
+
+    /**
+     * The tallest board that can be chosen.
      */
-    private static final String[] VALUE_LIST = {"10", "11", "12", "13", "14", "15", "16",
-        "17", "18", "19", "20", "21", "22", "23", "24", "25"};
+    private static final int MAX_HEIGHT = 100000;
     
     /**
      * Vertical strut space.
      */
     private static final int STRUT = 20;
     
+    /**
+     * Whether the dialog offers a choice of piece generator.
+     */
+    private final boolean myGeneratorChoice;
+    
     /**
      * The resulting board size of the choice.
      */
     private Dimension myResult;
     
+    /**
+     * The resulting piece generator of the choice.
+     */
+    private GeneratorType myGeneratorType = GeneratorType.UNIFORM;
+    
+    /**
+     * Creates a dialog that only chooses the size of the board.
+     */
+    public BoardSizeDialog() {
+        this(false);
+    }
+    
+    /**
+     * Creates a dialog for choosing the size of the board.
+     * 
+     * @param theGeneratorChoice Whether to also offer a choice of piece generator.
+     */
+    public BoardSizeDialog(final boolean theGeneratorChoice) {
+        super();
+        myGeneratorChoice = theGeneratorChoice;
+    }
+    
     /**
      * Shows the size dialog and returns a dimension.
      */
@@ -58,17 +100,29 @@ public class BoardSizeDialog extends JDialog {
         layout.add(Box.createVerticalStrut(STRUT));
         
         final Box xLayout = new Box(BoxLayout.X_AXIS);
-        final JComboBox<String> xList = new JComboBox<String>(VALUE_LIST);
+        final JSpinner xList = new JSpinner(new SpinnerNumberModel(
+                        DEFAULT_WIDTH, GameEngine.MIN_SIZE, GameEngine.MAX_WIDTH, 1));
         xLayout.add(Box.createHorizontalStrut(STRUT));
         xLayout.add(xList);
         xLayout.add(new JLabel("  by  "));
-        final JComboBox<String> yList = new JComboBox<String>(VALUE_LIST);
-        final int defaultY = 10;
-        yList.setSelectedItem(VALUE_LIST[defaultY]);
+        final JSpinner yList = new JSpinner(new SpinnerNumberModel(
+                        DEFAULT_HEIGHT, GameEngine.MIN_SIZE, MAX_HEIGHT, 1));
         xLayout.add(yList);
         xLayout.add(Box.createHorizontalStrut(STRUT));
         layout.add(xLayout);
         layout.add(Box.createVerticalStrut(STRUT));
+        
+        final JComboBox<GeneratorType> generatorList =
+                        new JComboBox<GeneratorType>(GeneratorType.values());
+        if (myGeneratorChoice) {
+            final Box generatorLayout = new Box(BoxLayout.X_AXIS);
+            generatorLayout.add(Box.createHorizontalStrut(STRUT));
+            generatorLayout.add(new JLabel("Pieces:  "));
+            generatorLayout.add(generatorList);
+            generatorLayout.add(Box.createHorizontalStrut(STRUT));
+            layout.add(generatorLayout);
+            layout.add(Box.createVerticalStrut(STRUT));
+        }
 
         final JButton okayBtn = new JButton("Okay");
         okayBtn.setAlignmentX(CENTER_ALIGNMENT);
@@ -77,9 +131,9 @@ public class BoardSizeDialog extends JDialog {
 
             @Override
             public void actionPerformed(final ActionEvent theEvent) {
-                myResult = new Dimension(
-                                       Integer.parseInt((String) xList.getSelectedItem()),
-                                       Integer.parseInt((String) yList.getSelectedItem()));
+                myResult = new Dimension((Integer) xList.getValue(),
+                                         (Integer) yList.getValue());
+                myGeneratorType = (GeneratorType) generatorList.getSelectedItem();
                 dispose();
             }
         });
@@ -102,4 +156,14 @@ public class BoardSizeDialog extends JDialog {
         return (Dimension) myResult.clone();
     }
     
+    /**
+     * Gets the chosen way of choosing pieces; UNIFORM unless the dialog offered a
+     * choice.
+     *
+     * @return result
+     */
+    public GeneratorType getGeneratorType() {
+        return myGeneratorType;
+    }
+    
 }
@@ -0,0 +1,115 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue of command codes with any number of producers and a
+ * single consumer. Each slot carries a sequence number: a producer claims a slot by
+ * advancing the tail with a compare-and-set, writes its code and then publishes the
+ * slot by moving the sequence on, so neither side ever blocks the other. When the
+ * queue is full new commands are refused rather than waited on.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class CommandQueue {
+
+    /** The value returned by poll() when the queue is empty. */
+    static final int EMPTY = -1;
+
+    /** The command codes, indexed by slot. */
+    private final int[] myCodes;
+
+    /** The sequence number of each slot. */
+    private final AtomicLongArray mySequences;
+
+    /** The mask that turns a position into a slot index. */
+    private final int myMask;
+
+    /** The position the next producer will claim. */
+    private final AtomicLong myTail = new AtomicLong();
+
+    /** The position the consumer will read next; consumer thread only. */
+    private long myHead;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param theCapacity the number of commands the queue can hold, a power of two
+     */
+    CommandQueue(final int theCapacity) {
+        if (theCapacity < 1 || Integer.bitCount(theCapacity) != 1) {
+            throw new IllegalArgumentException();
+        }
+        myCodes = new int[theCapacity];
+        mySequences = new AtomicLongArray(theCapacity);
+        myMask = theCapacity - 1;
+        for (int i = 0; i < theCapacity; i++) {
+            mySequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds a command to the queue. Safe to call from any thread.
+     *
+     * @param theCode the command code, not negative
+     * @return true if the command was queued, false if the queue was full
+     */
+    boolean offer(final int theCode) {
+        boolean result = false;
+        boolean done = false;
+        long tail = myTail.get();
+
+        while (!done) {
+            final int index = (int) tail & myMask;
+            final long difference = mySequences.get(index) - tail;
+            if (difference == 0) {
+                if (myTail.compareAndSet(tail, tail + 1)) {
+                    myCodes[index] = theCode;
+                    mySequences.lazySet(index, tail + 1);
+                    result = true;
+                    done = true;
+                } else {
+                    tail = myTail.get();
+                }
+            } else if (difference < 0) {
+                // the slot still holds a command the consumer has not read
+                done = true;
+            } else {
+                tail = myTail.get();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the oldest command from the queue. Called only by the consumer thread.
+     *
+     * @return the command code, or EMPTY if there is none
+     */
+    int poll() {
+        final int index = (int) myHead & myMask;
+        int result = EMPTY;
+        if (mySequences.get(index) == myHead + 1) {
+            result = myCodes[index];
+            mySequences.lazySet(index, myHead + myCodes.length);
+            myHead++;
+        }
+        return result;
+    }
+
+    /**
+     * Removes every queued command. Called only by the consumer thread.
+     */
+    void clear() {
+        while (poll() != EMPTY) {
+            // discard the command
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Everything a frame needs that depends on the size of the drawing area: the block
+ * images, the background and grid, an image for the frozen blocks and the font of the
+ * message. Building them takes long enough to be noticed while a window is resized,
+ * so they are built once per size, away from the threads that draw. Only the frozen
+ * image is drawn on after it is built, and only by the renderer that owns it.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class FrameLayers {
+
+    /**
+     * The font of the message at the default size.
+     */
+    private static final Font DEFAULT_FONT = new Font("Arial", Font.BOLD, 44);
+
+    /**
+     * The width of drawing area the default font is sized for: a board of ten columns
+     * at the default block size.
+     */
+    private static final float FONT_WIDTH = 300f;
+
+    /**
+     * The smallest scale of the message font.
+     */
+    private static final float MIN_FONT_SCALE = 0.5f;
+
+    /**
+     * The largest scale of the message font.
+     */
+    private static final float MAX_FONT_SCALE = 2f;
+
+    /**
+     * The width of the drawing area.
+     */
+    private final int myWidth;
+
+    /**
+     * The height of the drawing area.
+     */
+    private final int myHeight;
+
+    /**
+     * The block images.
+     */
+    private final BlockSprites mySprites;
+
+    /**
+     * Whether the background has the grid.
+     */
+    private final boolean myGrid;
+
+    /**
+     * The background color.
+     */
+    private final Color myBackgroundColor;
+
+    /**
+     * The background and grid.
+     */
+    private final BufferedImage myBackground;
+
+    /**
+     * The image the renderer draws the frozen blocks on.
+     */
+    private final BufferedImage myFrozen;
+
+    /**
+     * The font of the message.
+     */
+    private final Font myFont;
+
+    /**
+     * Builds the layers for a drawing area.
+     *
+     * @param theWidth The width of the drawing area.
+     * @param theHeight The height of the drawing area.
+     * @param theBlockSide The side length of a block.
+     * @param theGrid Whether to draw the grid.
+     * @param theBackground The background color.
+     */
+    FrameLayers(final int theWidth, final int theHeight, final int theBlockSide,
+                final boolean theGrid, final Color theBackground) {
+        myWidth = theWidth;
+        myHeight = theHeight;
+        mySprites = new BlockSprites(theBlockSide);
+        myGrid = theGrid;
+        myBackgroundColor = theBackground;
+        myBackground = drawBackground();
+        myFrozen = BlockSprites.createImage(theWidth, theHeight, Transparency.OPAQUE);
+        final float scale = Math.max(MIN_FONT_SCALE,
+                                     Math.min(theWidth / FONT_WIDTH, MAX_FONT_SCALE));
+        myFont = DEFAULT_FONT.deriveFont(DEFAULT_FONT.getSize2D() * scale);
+    }
+
+    /**
+     * Returns whether these layers were built for the given settings.
+     *
+     * @param theWidth The width of the drawing area.
+     * @param theHeight The height of the drawing area.
+     * @param theBlockSide The side length of a block.
+     * @param theGrid Whether to draw the grid.
+     * @param theBackground The background color.
+     * @return true if the layers can be used as they are.
+     */
+    boolean matches(final int theWidth, final int theHeight, final int theBlockSide,
+                    final boolean theGrid, final Color theBackground) {
+        return myWidth == theWidth && myHeight == theHeight
+               && mySprites.getSide() == theBlockSide && myGrid == theGrid
+               && myBackgroundColor.equals(theBackground);
+    }
+
+    /**
+     * @return The width of the drawing area.
+     */
+    int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * @return The height of the drawing area.
+     */
+    int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * @return The block images.
+     */
+    BlockSprites getSprites() {
+        return mySprites;
+    }
+
+    /**
+     * @return The background and grid.
+     */
+    BufferedImage getBackground() {
+        return myBackground;
+    }
+
+    /**
+     * @return The image for the frozen blocks.
+     */
+    BufferedImage getFrozen() {
+        return myFrozen;
+    }
+
+    /**
+     * @return The font of the message.
+     */
+    Font getFont() {
+        return myFont;
+    }
+
+    /**
+     * Draws the background layer.
+     *
+     * @return The layer.
+     */
+    private BufferedImage drawBackground() {
+        final BufferedImage layer = BlockSprites.createImage(myWidth, myHeight,
+                                                             Transparency.OPAQUE);
+        final Graphics2D g2d = layer.createGraphics();
+        try {
+            g2d.setColor(myBackgroundColor);
+            g2d.fillRect(0, 0, myWidth, myHeight);
+            if (myGrid) {
+                final int roundedBlock = Math.max(mySprites.getSide(), 1);
+                g2d.setColor(Color.GRAY);
+                for (int y = 0; y <= myHeight; y = y + roundedBlock) {
+                    g2d.drawLine(0, y, myWidth, y);
+                }
+                for (int x = 0; x <= myWidth; x = x + roundedBlock) {
+                    g2d.drawLine(x, 0, x, myHeight);
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return layer;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import model.Board;
+
+/**
+ * The player inputs that the game loop applies to the board. Each input is named by
+ * the control bound to it and travels between threads as its command code. Moving
+ * left, right and down repeat for as long as their keys are held, so each has a
+ * release input, bound to no control, that ends the repeat when the key comes up.
+ *
+ * @author James Brewer
+ * @version B
+ */
+enum GameCommand {
+
+    /** Moves the current piece left and keeps moving it while held. */
+    LEFT("left") {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theShift.pressShift(-1, theBoard);
+        }
+    },
+
+    /** Moves the current piece right and keeps moving it while held. */
+    RIGHT("right") {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theShift.pressShift(1, theBoard);
+        }
+    },
+
+    /** Moves the current piece down and keeps moving it while held. */
+    DOWN("down") {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theShift.pressSoftDrop(theBoard);
+        }
+    },
+
+    /** Rotates the current piece clockwise. */
+    ROTATE_CW("rotate") {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theBoard.rotateCW();
+        }
+    },
+
+    /** Rotates the current piece counterclockwise. */
+    ROTATE_CCW("rotate ccw") {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theBoard.rotateCCW();
+        }
+    },
+
+    /** Rotates the current piece a half turn. */
+    ROTATE_180("rotate 180") {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theBoard.rotate180();
+        }
+    },
+
+    /** Drops the current piece all the way down. */
+    DROP("drop") {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theBoard.hardDrop();
+        }
+    },
+
+    /** Stops moving the current piece left. */
+    RELEASE_LEFT(null) {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theShift.releaseShift(-1);
+        }
+    },
+
+    /** Stops moving the current piece right. */
+    RELEASE_RIGHT(null) {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theShift.releaseShift(1);
+        }
+    },
+
+    /** Stops moving the current piece down. */
+    RELEASE_DOWN(null) {
+        @Override
+        void apply(final Board theBoard, final AutoShift theShift) {
+            theShift.releaseSoftDrop();
+        }
+    };
+
+    /** The values of the enumeration, indexed by command code. */
+    private static final GameCommand[] COMMANDS = values();
+
+    /** The name of the control bound to the input. */
+    private final String myControl;
+
+    /**
+     * Creates an input.
+     *
+     * @param theControl the name of the control bound to the input, or null for a
+     *            release input
+     */
+    GameCommand(final String theControl) {
+        myControl = theControl;
+    }
+
+    /**
+     * @return the number of inputs, which is one more than the largest command code
+     */
+    static int count() {
+        return COMMANDS.length;
+    }
+
+    /**
+     * Returns the input with a command code.
+     *
+     * @param theCode the command code
+     * @return the input
+     */
+    static GameCommand forCode(final int theCode) {
+        return COMMANDS[theCode];
+    }
+
+    /**
+     * Returns the input bound to a control.
+     *
+     * @param theControl the name of the control
+     * @return the input, or null if the control is not an input
+     */
+    static GameCommand forControl(final String theControl) {
+        GameCommand result = null;
+        for (final GameCommand command : COMMANDS) {
+            if (theControl != null && theControl.equals(command.myControl)) {
+                result = command;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the command code of the input
+     */
+    int getCode() {
+        return ordinal();
+    }
+
+    /**
+     * Returns the input that ends this one when its key is released.
+     *
+     * @return the release input, or null if the input does not repeat
+     */
+    GameCommand getRelease() {
+        final GameCommand result;
+        switch (this) {
+            case LEFT:
+                result = RELEASE_LEFT;
+                break;
+            case RIGHT:
+                result = RELEASE_RIGHT;
+                break;
+            case DOWN:
+                result = RELEASE_DOWN;
+                break;
+            default:
+                result = null;
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the input only ends a held input and so applies even when the
+     *         game is over
+     */
+    boolean isRelease() {
+        return myControl == null;
+    }
+
+    /**
+     * Applies the input to a board. Called only on the game loop thread.
+     *
+     * @param theBoard the board
+     * @param theShift the state of the held inputs
+     */
+    abstract void apply(Board theBoard, AutoShift theShift);
+}
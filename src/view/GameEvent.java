@@ -0,0 +1,30 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+/**
+ * The kinds of events the game panel reports to the rest of the window.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public enum GameEvent {
+    
+    /** The score or the lines cleared changed; the values are in the latest snapshot. */
+    SCORE_CHANGED,
+    
+    /** The game changed level; the value is its gravity in GravityTable.CELL units. */
+    LEVEL_CHANGED,
+    
+    /** A new game was started and the scores should be cleared. */
+    NEW_GAME,
+    
+    /** A new game was started with a different board size. */
+    GAME_SIZE,
+    
+    /** The current game ended. */
+    GAME_OVER
+}
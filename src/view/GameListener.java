@@ -0,0 +1,23 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+/**
+ * A listener for the events reported by the game panel.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+public interface GameListener {
+    
+    /**
+     * Handles an event from the game panel.
+     * 
+     * @param theEvent The kind of event.
+     * @param theValue The value carried by the event, or 0 if it has none.
+     */
+    void gameChanged(GameEvent theEvent, int theValue);
+}
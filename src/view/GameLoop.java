@@ -0,0 +1,313 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.SwingUtilities;
+
+import model.Board;
+import model.GravityTable;
+
+/**
+ * Plays a board on its own thread. The loop advances in fixed frames measured with
+ * System.nanoTime; each frame adds the gravity, in fractions of a cell per frame, to
+ * the distance the piece has to fall and steps the board by the whole rows gathered
+ * in one call, so gravity keeps exact time however busy the event dispatch thread is
+ * and can move a piece many rows in a frame. A piece that has landed only locks once
+ * it has rested for the lock delay, so it can still be moved at any speed of gravity;
+ * soft drops bring it down to the stack without locking it.
+ * Inputs do not wait for a frame: submitting one wakes the loop, which applies it at
+ * once, and the loop also wakes exactly when a held input is due to repeat. The board
+ * is only ever changed on the loop thread; its observers are notified there and must
+ * hand their work to the event dispatch thread. A frame listener runs on the loop
+ * thread after every pass, which lets a view draw the result of the pass before the
+ * loop sleeps. A task, input, frame or listener that throws is reported on the event
+ * dispatch thread and the loop carries on with the next one.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class GameLoop implements Runnable {
+
+    /** The number of frames the loop advances per second. */
+    static final int FRAMES_PER_SECOND = 60;
+
+    /** The length of a frame in nanoseconds. */
+    private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / FRAMES_PER_SECOND;
+
+    /**
+     * The most time the loop catches up on after a stall, such as a long garbage
+     * collection; the rest of the stall is dropped rather than played as a burst of
+     * frames.
+     */
+    private static final long MAX_LAG = 4 * FRAME_NANOS;
+
+    /** The number of frames a landed piece rests before gravity may lock it. */
+    private static final int LOCK_DELAY_FRAMES = FRAMES_PER_SECOND / 2;
+
+    /** The number of inputs that can wait for the next frame. */
+    private static final int INPUT_CAPACITY = 64;
+
+    /** The board played by the loop. */
+    private final Board myBoard;
+
+    /** The command codes of the inputs waiting to be applied, in the order made. */
+    private final CommandQueue myInputs = new CommandQueue(INPUT_CAPACITY);
+
+    /** The held inputs and their repeat timing; loop thread only except the rates. */
+    private final AutoShift myAutoShift = new AutoShift();
+
+    /** Other work waiting to run on the loop thread, such as starting a new game. */
+    private final Queue<Runnable> myTasks = new ConcurrentLinkedQueue<Runnable>();
+
+    /** The loop thread. */
+    private final Thread myThread;
+
+    /** Runs after every pass of the loop, or null for none. */
+    private volatile Runnable myFrameListener;
+
+    /** Whether gravity is running. */
+    private volatile boolean myRunning;
+
+    /** The speed of gravity in GravityTable.CELL units per frame. */
+    private volatile int myGravity;
+
+    /** The fall gathered towards the next row, in the same units; loop thread only. */
+    private int myFall;
+
+    /** The number of frames the piece has rested on the stack; loop thread only. */
+    private int myLanded;
+
+    /**
+     * Creates a loop for a board. Gravity does not run until the loop is started.
+     *
+     * @param theBoard the board to play
+     * @param theGravity the speed of gravity in GravityTable.CELL units per frame
+     */
+    GameLoop(final Board theBoard, final int theGravity) {
+        myBoard = theBoard;
+        setGravity(theGravity);
+        myThread = new Thread(this, "Game Loop");
+        myThread.setDaemon(true);
+        myThread.start();
+    }
+
+    /**
+     * Starts or resumes gravity.
+     */
+    void start() {
+        myRunning = true;
+        LockSupport.unpark(myThread);
+    }
+
+    /**
+     * Suspends gravity. Inputs made while suspended are discarded.
+     */
+    void stop() {
+        myRunning = false;
+    }
+
+    /**
+     * Changes the speed of gravity.
+     *
+     * @param theGravity the speed in GravityTable.CELL units per frame, more than 0
+     *            and at most GravityTable.MAX_GRAVITY
+     */
+    void setGravity(final int theGravity) {
+        if (theGravity < 1 || theGravity > GravityTable.MAX_GRAVITY) {
+            throw new IllegalArgumentException("Invalid gravity: " + theGravity);
+        }
+        myGravity = theGravity;
+    }
+
+    /**
+     * @return the speed of gravity in GravityTable.CELL units per frame
+     */
+    int getGravity() {
+        return myGravity;
+    }
+
+    /**
+     * @return the repeat timing of held inputs, whose rates may be changed from any
+     *         thread
+     */
+    AutoShift getAutoShift() {
+        return myAutoShift;
+    }
+
+    /**
+     * Queues an input and wakes the loop thread to apply it. This never blocks; an
+     * input made while the queue is full is dropped.
+     *
+     * @param theCode the command code of the input
+     */
+    void submit(final int theCode) {
+        if (myInputs.offer(theCode)) {
+            LockSupport.unpark(myThread);
+        }
+    }
+
+    /**
+     * Sets the work to run on the loop thread after every pass of the loop, whether or
+     * not gravity is running.
+     *
+     * @param theListener the work, or null for none
+     */
+    void setFrameListener(final Runnable theListener) {
+        myFrameListener = theListener;
+    }
+
+    /**
+     * Queues work to run on the loop thread, whether or not gravity is running.
+     *
+     * @param theTask the work
+     */
+    void invoke(final Runnable theTask) {
+        myTasks.add(theTask);
+        LockSupport.unpark(myThread);
+    }
+
+    /**
+     * Runs the loop. Called only by the loop thread.
+     */
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long lag = 0;
+
+        while (true) {
+            runTasks();
+            if (myRunning) {
+                final long now = System.nanoTime();
+                final long elapsed = now - previous;
+                lag = Math.min(lag + elapsed, MAX_LAG);
+                previous = now;
+
+                try {
+                    myAutoShift.advance(elapsed, myBoard);
+                    applyInputs();
+                } catch (final RuntimeException exception) {
+                    report(exception);
+                }
+                while (lag >= FRAME_NANOS && myRunning) {
+                    lag -= FRAME_NANOS;
+                    try {
+                        frame();
+                    } catch (final RuntimeException exception) {
+                        report(exception);
+                    }
+                }
+                endPass();
+                LockSupport.parkNanos(this, Math.min(FRAME_NANOS - lag,
+                                                     myAutoShift.getNanosToNext()));
+            } else {
+                myInputs.clear();
+                myAutoShift.reset();
+                endPass();
+                LockSupport.park(this);
+
+                // time spent suspended does not count towards gravity
+                previous = System.nanoTime();
+                lag = 0;
+            }
+        }
+    }
+
+    /**
+     * Runs the queued work.
+     */
+    private void runTasks() {
+        Runnable task = myTasks.poll();
+        while (task != null) {
+            try {
+                task.run();
+            } catch (final RuntimeException exception) {
+                report(exception);
+            }
+            task = myTasks.poll();
+        }
+    }
+
+    /**
+     * Runs the frame listener, if there is one.
+     */
+    private void endPass() {
+        final Runnable listener = myFrameListener;
+        if (listener != null) {
+            try {
+                listener.run();
+            } catch (final RuntimeException exception) {
+                report(exception);
+            }
+        }
+    }
+
+    /**
+     * Hands a failure on the loop thread to the event dispatch thread, which reports
+     * it as it reports its own, so the loop thread keeps running.
+     *
+     * @param theException the failure
+     */
+    private void report(final RuntimeException theException) {
+        SwingUtilities.invokeLater(new Runnable() {
+            /**
+             * Throws the failure on the event dispatch thread.
+             */
+            @Override
+            public void run() {
+                throw theException;
+            }
+        });
+    }
+
+    /**
+     * Applies the queued inputs to the board.
+     */
+    private void applyInputs() {
+        int code = myInputs.poll();
+        while (code != CommandQueue.EMPTY) {
+            final GameCommand command = GameCommand.forCode(code);
+            if (command.isRelease() || !myBoard.isGameOver()) {
+                command.apply(myBoard, myAutoShift);
+            }
+            code = myInputs.poll();
+        }
+    }
+
+    /**
+     * Advances the game by one frame, stepping the board by every whole row of gravity
+     * gathered so far, down to the stack at most. A landed piece is locked by the first
+     * row of gravity due once it has rested for the lock delay.
+     */
+    private void frame() {
+        myFall += myGravity;
+        final int rows = myFall / GravityTable.CELL;
+        myFall %= GravityTable.CELL;
+        if (myBoard.isGameOver()) {
+            myFall = 0;
+            myLanded = 0;
+        } else {
+            // the engine keeps this distance for the step, so the frame queries once
+            final int distance = myBoard.getDropDistance();
+            if (distance > 0) {
+                myLanded = 0;
+                if (rows > 0) {
+                    myBoard.step(Math.min(rows, distance));
+                }
+            } else {
+                myLanded++;
+                if (rows > 0 && myLanded >= LOCK_DELAY_FRAMES) {
+                    myLanded = 0;
+                    myBoard.step();
+                }
+            }
+        }
+    }
+}
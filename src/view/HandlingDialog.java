@@ -0,0 +1,156 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.awt.Dimension;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+/**
+ * A dialog for choosing how held movement keys repeat.
+ *
+ * @author James Brewer
+ * @version B
+ *
+ */
+@SuppressWarnings("serial")
+public class HandlingDialog extends JDialog {
+
+    /**
+     * The largest time that can be chosen, in milliseconds.
+     */
+    private static final int MAX_MILLIS = 1000;
+
+    /**
+     * The amount a spinner changes per click, in milliseconds.
+     */
+    private static final int STEP_MILLIS = 5;
+
+    /**
+     * Vertical strut space.
+     */
+    private static final int STRUT = 20;
+
+    /**
+     * The chosen delayed auto-shift.
+     */
+    private int myDas;
+
+    /**
+     * The chosen auto-repeat rate.
+     */
+    private int myArr;
+
+    /**
+     * The chosen soft drop rate.
+     */
+    private int mySoftDrop;
+
+    /**
+     * Shows the handling dialog, starting from the current timing.
+     *
+     * @param theDas The current delay in milliseconds before a held key repeats.
+     * @param theArr The current milliseconds between repeated moves.
+     * @param theSoftDrop The current milliseconds between soft drop moves.
+     */
+    public void showHandlingDialog(final int theDas, final int theArr,
+                                   final int theSoftDrop) {
+
+        this.setModal(true);
+        this.setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        final Box layout = new Box(BoxLayout.Y_AXIS);
+        layout.add(Box.createVerticalStrut(STRUT));
+        final JLabel msgLabel = new JLabel("    Times are in milliseconds; 0 is instant.    ");
+        msgLabel.setAlignmentX(CENTER_ALIGNMENT);
+        layout.add(msgLabel);
+        layout.add(Box.createVerticalStrut(STRUT));
+
+        final JSpinner dasSpinner = addRow(layout, "Auto-shift delay", theDas);
+        final JSpinner arrSpinner = addRow(layout, "Auto-repeat rate", theArr);
+        final JSpinner dropSpinner = addRow(layout, "Soft drop rate", theSoftDrop);
+        layout.add(Box.createVerticalStrut(STRUT));
+
+        final JButton okayBtn = new JButton("Okay");
+        okayBtn.setAlignmentX(CENTER_ALIGNMENT);
+        layout.add(okayBtn);
+        okayBtn.addActionListener(new ActionListener() {
+
+            @Override
+            public void actionPerformed(final ActionEvent theEvent) {
+                myDas = (Integer) dasSpinner.getValue();
+                myArr = (Integer) arrSpinner.getValue();
+                mySoftDrop = (Integer) dropSpinner.getValue();
+                dispose();
+            }
+        });
+
+        this.add(layout);
+        this.pack();
+
+        final Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        this.setLocation((int) screenSize.getWidth() / 2 - this.getWidth() / 2,
+                         (int) screenSize.getHeight() / 2 - this.getHeight() / 2);
+        this.setVisible(true);
+    }
+
+    /**
+     * Adds a labeled spinner for a time to the layout.
+     *
+     * @param theLayout The layout to add to.
+     * @param theName The name of the time.
+     * @param theValue The starting value in milliseconds.
+     * @return The spinner.
+     */
+    private JSpinner addRow(final Box theLayout, final String theName, final int theValue) {
+        final Box row = new Box(BoxLayout.X_AXIS);
+        final JSpinner spinner = new JSpinner(new SpinnerNumberModel(
+                                    Math.min(theValue, MAX_MILLIS), 0, MAX_MILLIS, STEP_MILLIS));
+        row.add(Box.createHorizontalStrut(STRUT));
+        row.add(new JLabel(theName + "  "));
+        row.add(Box.createHorizontalGlue());
+        row.add(spinner);
+        row.add(Box.createHorizontalStrut(STRUT));
+        theLayout.add(row);
+        return spinner;
+    }
+
+    /**
+     * Gets the chosen delayed auto-shift.
+     *
+     * @return The delay in milliseconds.
+     */
+    public int getDas() {
+        return myDas;
+    }
+
+    /**
+     * Gets the chosen auto-repeat rate.
+     *
+     * @return The time in milliseconds.
+     */
+    public int getArr() {
+        return myArr;
+    }
+
+    /**
+     * Gets the chosen soft drop rate.
+     *
+     * @return The time in milliseconds.
+     */
+    public int getSoftDrop() {
+        return mySoftDrop;
+    }
+
+}
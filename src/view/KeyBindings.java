@@ -0,0 +1,123 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A table from key codes to the actions they are bound to, so a key press is resolved
+ * with a single array read. The table covers the letters, digits, arrows, function
+ * keys and keypad; key codes beyond it, such as the extended codes of non-Latin
+ * layouts, are kept in a map instead. Rebinding only touches the slots of the keys
+ * bound before and after. Game commands use their command codes as actions; the
+ * controls handled by the view itself have codes of their own after them.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class KeyBindings {
+
+    /** The action of a key that is not bound. */
+    static final int NONE = -1;
+
+    /** The action that pauses or resumes the game. */
+    static final int PAUSE = GameCommand.count();
+
+    /** The action that shows or hides the grid. */
+    static final int GRID = PAUSE + 1;
+
+    /** The name of the pause control. */
+    static final String PAUSE_CONTROL = "pause";
+
+    /** The name of the grid control. */
+    static final String GRID_CONTROL = "grid";
+
+    /** The number of key codes the table covers. */
+    private static final int KEY_CODES = 1 << 10;
+
+    /** The action of each key code. */
+    private final byte[] myActions = new byte[KEY_CODES];
+
+    /** The key codes in the table that are bound. */
+    private int[] myBoundCodes = new int[0];
+
+    /** The action of each bound key code outside the table. */
+    private final Map<Integer, Integer> myExtendedActions = new HashMap<Integer, Integer>();
+
+    /**
+     * Creates a table with no keys bound.
+     */
+    KeyBindings() {
+        Arrays.fill(myActions, (byte) NONE);
+    }
+
+    /**
+     * Rebinds every key from a map of control names to key codes.
+     *
+     * @param theControls the key code of each control, by name
+     */
+    void rebuild(final Map<String, Integer> theControls) {
+        for (final int keyCode : myBoundCodes) {
+            myActions[keyCode] = (byte) NONE;
+        }
+        myExtendedActions.clear();
+        final int[] bound = new int[theControls.size()];
+        int count = 0;
+        for (final Map.Entry<String, Integer> control : theControls.entrySet()) {
+            final int keyCode = control.getValue();
+            final int action = actionFor(control.getKey());
+            if (keyCode >= 0 && keyCode < KEY_CODES) {
+                myActions[keyCode] = (byte) action;
+                bound[count++] = keyCode;
+            } else if (action != NONE) {
+                myExtendedActions.put(keyCode, action);
+            }
+        }
+        myBoundCodes = Arrays.copyOf(bound, count);
+    }
+
+    /**
+     * Returns the action bound to a key.
+     *
+     * @param theKeyCode the key code
+     * @return the action, or NONE if the key is not bound
+     */
+    int getAction(final int theKeyCode) {
+        int result = NONE;
+        if (theKeyCode >= 0 && theKeyCode < KEY_CODES) {
+            result = myActions[theKeyCode];
+        } else if (!myExtendedActions.isEmpty()) {
+            final Integer action = myExtendedActions.get(theKeyCode);
+            if (action != null) {
+                result = action;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the action of a control.
+     *
+     * @param theControl the name of the control
+     * @return the action, or NONE if there is no such control
+     */
+    private static int actionFor(final String theControl) {
+        int result = NONE;
+        if (PAUSE_CONTROL.equals(theControl)) {
+            result = PAUSE;
+        } else if (GRID_CONTROL.equals(theControl)) {
+            result = GRID;
+        } else {
+            final GameCommand command = GameCommand.forControl(theControl);
+            if (command != null) {
+                result = command.getCode();
+            }
+        }
+        return result;
+    }
+}
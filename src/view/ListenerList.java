@@ -0,0 +1,78 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A copy-on-write list of game listeners. Adding or removing a listener swaps in a new
+ * array with compare-and-set, so firing an event never takes a lock or copies anything.
+ * 
+ * @author James Brewer
+ * @version B
+ */
+final class ListenerList {
+    
+    /**
+     * The current listeners. The array is never modified once published.
+     */
+    private final AtomicReference<GameListener[]> myListeners =
+                    new AtomicReference<GameListener[]>(new GameListener[0]);
+    
+    /**
+     * Adds a listener.
+     * 
+     * @param theListener The listener to add.
+     */
+    void add(final GameListener theListener) {
+        if (theListener == null) {
+            throw new IllegalArgumentException();
+        }
+        GameListener[] current;
+        GameListener[] updated;
+        do {
+            current = myListeners.get();
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = theListener;
+        } while (!myListeners.compareAndSet(current, updated));
+    }
+    
+    /**
+     * Removes a listener if it was added.
+     * 
+     * @param theListener The listener to remove.
+     */
+    void remove(final GameListener theListener) {
+        GameListener[] current;
+        GameListener[] updated;
+        do {
+            current = myListeners.get();
+            final int index = Arrays.asList(current).indexOf(theListener);
+            if (index < 0) {
+                // swapping the array for itself only succeeds if nothing was added since
+                updated = current;
+            } else {
+                updated = new GameListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index,
+                                 updated.length - index);
+            }
+        } while (!myListeners.compareAndSet(current, updated));
+    }
+    
+    /**
+     * Passes an event to every listener.
+     * 
+     * @param theEvent The kind of event.
+     * @param theValue The value carried by the event.
+     */
+    void fire(final GameEvent theEvent, final int theValue) {
+        for (final GameListener listener : myListeners.get()) {
+            listener.gameChanged(theEvent, theValue);
+        }
+    }
+}
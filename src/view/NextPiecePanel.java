@@ -14,14 +14,19 @@ import java.awt.geom.Line2D;
 import java.util.Observable;
 import java.util.Observer;
 
-import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
-import model.AbstractPiece;
 import model.Board;
-import model.Piece;
+import model.BoardEvent;
+import model.BoardSnapshot;
+import model.GameEngine;
 
 /**
+ * Shows the upcoming pieces, from one up to MAX_PREVIEW of them, the next piece at the
+ * top. The panel only changes when a piece spawns; every other board notification is
+ * ignored. Each piece is copied from a thumbnail drawn once per kind of piece.
+ * 
  * @author James Brewer
  * @version A
  *
@@ -29,15 +34,21 @@ import model.Piece;
 @SuppressWarnings("serial")
 public class NextPiecePanel extends JPanel implements Observer {
     
+    /**
+     * The most upcoming pieces that can be shown.
+     */
+    public static final int MAX_PREVIEW = GameEngine.PREVIEW_LENGTH;
+    
     /**
      * Number of horizontal grid spaces.
      */
     private static final int GRID_X = 6;
     
     /**
-     * Number of vertical grid spaces.
+     * Number of vertical grid spaces taken by each upcoming piece; the first piece
+     * has one more row above it.
      */
-    private static final int GRID_Y = 4;
+    private static final int SLOT_Y = 3;
     
     /**
      * The default side length of a block.
@@ -50,62 +61,87 @@ public class NextPiecePanel extends JPanel implements Observer {
     private static final int GRID_LINE_WIDTH = 1;
     
     /**
-     * The panel dimension, dependent on the block size.
+     * The panel dimension, dependent on the block size and the number of pieces.
      */
-    private final Dimension myPanelSize = new Dimension(GRID_X * BLOCK_SIDE + 1,
-                                                        GRID_Y * BLOCK_SIDE + 1);
+    private Dimension myPanelSize;
     
     /**
-     * The next piece to be played.
+     * The number of upcoming pieces shown.
      */
-    private Piece myPiece;
+    private int myPreviewCount;
     
     /**
-     * Coordinate data of the next piece.
+     * The thumbnails of the pieces at the current block size.
      */
-    private int[][] myPieceData;
+    private PieceThumbnails myThumbnails;
     
     /**
-     * Constructs a new panel for the next piece, given a board.
+     * The snapshot taken when the last piece spawned.
+     */
+    private BoardSnapshot mySnapshot;
+    
+    /**
+     * Constructs a new panel for the upcoming pieces, given a board.
      * 
      * @param theBoard The board the panel will display.
+     * @param theSnapshot The latest snapshot of the board, shown until a piece spawns.
      */
-    public NextPiecePanel(final Board theBoard) {
+    public NextPiecePanel(final Board theBoard, final BoardSnapshot theSnapshot) {
         super(true);
         
         this.setFocusable(false);
+        mySnapshot = theSnapshot;
         theBoard.addObserver(this);
-        try {
-            myPiece = ((AbstractPiece) theBoard.getNextPiece()).clone();
-            myPieceData = getPieceData(myPiece, theBoard.getHeight(), theBoard.getWidth());
-        } catch (final CloneNotSupportedException e) {
-            JOptionPane.showMessageDialog(null, "Error copying initial next piece", "WARNING",
-                                          JOptionPane.WARNING_MESSAGE);
+        setPreviewCount(1);
+        this.setBackground(Color.BLACK);
+    }
+    
+    /**
+     * @return The number of upcoming pieces shown.
+     */
+    public int getPreviewCount() {
+        return myPreviewCount;
+    }
+    
+    /**
+     * Sets the number of upcoming pieces shown and resizes the panel to fit them.
+     * 
+     * @param theCount The number of pieces, from 1 to MAX_PREVIEW.
+     * @throws IllegalArgumentException if theCount is out of range
+     */
+    public void setPreviewCount(final int theCount) {
+        if (theCount < 1 || theCount > MAX_PREVIEW) {
+            throw new IllegalArgumentException();
         }
+        myPreviewCount = theCount;
+        myPanelSize = new Dimension(GRID_X * BLOCK_SIDE + 1,
+                                    (1 + SLOT_Y * theCount) * BLOCK_SIDE + 1);
         this.setPreferredSize(myPanelSize);
         this.setMaximumSize(myPanelSize);
-        this.setBackground(Color.BLACK);
+        revalidate();
+        repaint();
     }
     
     /**
-     * Draws the next piece on the panel.
+     * Draws the upcoming pieces on the panel.
      * 
      * @param theGraphics The graphics controller for displaying.
      */
     @Override
     public void paintComponent(final Graphics theGraphics) {
         final Graphics2D g2d = (Graphics2D) theGraphics;
-        g2d.clearRect(0, 0, myPanelSize.width, myPanelSize.height);
         g2d.setColor(Color.BLACK);
-        g2d.fillRect(0, 0, myPanelSize.width, myPanelSize.height);
+        g2d.fillRect(0, 0, getWidth(), getHeight());
         drawGrid(g2d);
-
         
-        g2d.setColor(((AbstractPiece) myPiece).getBlock().getColor());
-        for (final int[] block: myPieceData) {
-            g2d.fillRect(block[0] * BLOCK_SIDE, block[1] * BLOCK_SIDE, BLOCK_SIDE, BLOCK_SIDE);
+        if (myThumbnails == null || myThumbnails.getSide() != BLOCK_SIDE) {
+            myThumbnails = new PieceThumbnails(BLOCK_SIDE);
+        }
+        final int count = Math.min(myPreviewCount, mySnapshot.getPreviewCount());
+        for (int i = 0; i < count; i++) {
+            g2d.drawImage(myThumbnails.get(mySnapshot.getPreviewBlock(i)), BLOCK_SIDE,
+                          (1 + SLOT_Y * i) * BLOCK_SIDE, null);
         }
-        
     }
 
     /**
@@ -126,56 +162,31 @@ public class NextPiecePanel extends JPanel implements Observer {
             theG2d.draw(new Line2D.Double(x, 0, x, height));
         }
     }
-    
-    /**
-     * Gets the data of the piece.
-     *
-     * @param thePiece the piece
-     * @param theBoardY the height of the board
-     * @param theBoardX the width of the board
-     * @return Block coordinates of the piece
-     */
-    private int[][] getPieceData(final Piece thePiece, final int theBoardY,
-                                                         final int theBoardX) {
-        final int[][] boardCoords = ((AbstractPiece) thePiece).getBoardCoordinates();
-        final int highY = theBoardY + 2;
-        final int lowY = theBoardY + 1;
-        final int xMargin = 6;
-        final int shiftX = (theBoardX - xMargin) / 2;
-        
-        //Block coordinates converted into small panel coordinates
-        for (int i = boardCoords.length - 1; i >= 0; i--) {
-            if (boardCoords[i][1] == highY) {
-                boardCoords[i][1] = 1;
-            } else if (boardCoords[i][1] == lowY) {
-                boardCoords[i][1] = 2;
-            }
-            boardCoords[i][0] = boardCoords[i][0] - shiftX;
-        }
-               
-        return boardCoords;
-    }
-    
 
     /**
-     * Update the panel when the board notifies.
+     * Update the panel when a piece spawns. The board notifies on the game loop
+     * thread, so the snapshot is taken here and shown on the event dispatch thread.
+     * Moves, rotations and gravity steps return at once.
      * 
      * @param theObservable The object notifying.
-     * @param theData Optional data being passed.
+     * @param theData The board event.
      */
     @Override
     public void update(final Observable theObservable, final Object theData) {
-        final Piece otherPiece = ((Board) theObservable).getNextPiece();
-        if (!((Board) theObservable).getNextPiece().equals(myPiece)) {
-            try {
-                myPiece = ((AbstractPiece) otherPiece).clone();
-                myPieceData = getPieceData(myPiece, ((Board) theObservable).getHeight(), 
-                                           ((Board) theObservable).getWidth());
-                repaint();
-            } catch (final CloneNotSupportedException e) {
-                JOptionPane.showMessageDialog(null, "Error copying next piece", "ERROR",
-                                              JOptionPane.WARNING_MESSAGE);
-            }
+        if (((BoardEvent) theData).isSpawned()) {
+            final BoardSnapshot snapshot = ((Board) theObservable).getSnapshot();
+            SwingUtilities.invokeLater(new Runnable() {
+                /**
+                 * Shows the upcoming pieces.
+                 */
+                @Override
+                public void run() {
+                    if (!snapshot.isPreviewShared(mySnapshot)) {
+                        mySnapshot = snapshot;
+                        repaint();
+                    }
+                }
+            });
         }
     }
 }
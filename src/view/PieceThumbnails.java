@@ -0,0 +1,93 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import model.Block;
+import model.PieceKind;
+
+/**
+ * The pre-drawn image of every kind of piece in the rotation it spawns in, at one
+ * block size, so a preview of a piece is a single image copy. A set of thumbnails
+ * never changes after it is built.
+ *
+ * @author James Brewer
+ * @version B
+ */
+final class PieceThumbnails {
+
+    /**
+     * The number of columns a piece covers when it spawns, at most.
+     */
+    static final int COLUMNS = 4;
+
+    /**
+     * The number of rows a piece covers when it spawns, at most.
+     */
+    static final int ROWS = 2;
+
+    /**
+     * The lowest row offset of a block of a piece that has just spawned.
+     */
+    private static final int LOWEST_ROW = 1;
+
+    /**
+     * The side length of a block in pixels.
+     */
+    private final int mySide;
+
+    /**
+     * The image of each kind of piece, indexed by the ordinal of its block type.
+     */
+    private final Image[] myImages = new Image[Block.values().length];
+
+    /**
+     * Draws the thumbnails for a block size.
+     *
+     * @param theSide The side length of a block in pixels, more than 0.
+     */
+    PieceThumbnails(final int theSide) {
+        mySide = theSide;
+        final BlockSprites sprites = new BlockSprites(theSide);
+        for (final PieceKind kind : PieceKind.values()) {
+            final BufferedImage image = BlockSprites.createImage(COLUMNS * theSide,
+                                                                 ROWS * theSide,
+                                                                 Transparency.BITMASK);
+            final Graphics2D g2d = image.createGraphics();
+            try {
+                for (int i = 0; i < PieceKind.BLOCKS; i++) {
+                    final int row = ROWS - 1 - (kind.getCellY(0, i) - LOWEST_ROW);
+                    g2d.drawImage(sprites.getBlock(kind.getBlock()),
+                                  kind.getCellX(0, i) * theSide, row * theSide, null);
+                }
+            } finally {
+                g2d.dispose();
+            }
+            myImages[kind.getBlock().ordinal()] = image;
+        }
+    }
+
+    /**
+     * @return The side length of a block in pixels.
+     */
+    int getSide() {
+        return mySide;
+    }
+
+    /**
+     * Returns the thumbnail of a kind of piece, COLUMNS by ROWS blocks in size.
+     *
+     * @param theBlock The block type of the piece, not EMPTY.
+     * @return The thumbnail.
+     */
+    Image get(final Block theBlock) {
+        return myImages[theBlock.ordinal()];
+    }
+}
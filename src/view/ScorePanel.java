@@ -7,9 +7,6 @@ package view;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.math.BigDecimal;
-import java.util.Observable;
-import java.util.Observer;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -17,6 +14,10 @@ import javax.swing.BoxLayout;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
+import model.BoardSnapshot;
+import model.GravityTable;
+import model.ScoringRule;
+
 /**
  * This handles a panel for scoring the Tetris game.
  * 
@@ -24,22 +25,12 @@ import javax.swing.JPanel;
  * @version B
  */
 @SuppressWarnings("serial")
-public class ScorePanel extends JPanel implements Observer {
+public class ScorePanel extends JPanel implements GameListener {
       
     /**
-     * Scale to display the delay in seconds rather than milliseconds.
-     */
-    private static final int TIME_SCALE = 1000;
-    
-    /**
-     * Number of points per single line cleared. Multiplied in combos.
+     * Scale to display gravity in cells per frame rather than fixed point units.
      */
-    private static final int LINE_SCORE = 50;
-
-    /**
-     * The bonus given to the score when leveling up.
-     */
-    private static final int LEVEL_BONUS = 500;
+    private static final double GRAVITY_SCALE = GravityTable.CELL;
     
     /**
      * Vertical space value between labels.
@@ -82,33 +73,24 @@ public class ScorePanel extends JPanel implements Observer {
     private final JLabel myLinesLabel = new JLabel("Lines cleared: 0");
     
     /**
-     * Label for the time delay value.
+     * Label for the speed of gravity.
      */
-    private final JLabel myTimeDelayLabel = new JLabel("Time delay: 1.0 s");
-    /**
-     * The current level number the user is on.
-     */
-    private int myLevel = 1;
-    
-    /**
-     * The current game's score.
-     */
-    private int myScore;
+    private final JLabel myGravityLabel = new JLabel("Gravity: 0.017 G");
     
     /**
-     * Number of lines cleared.
+     * The box listing how the current scoring rule scores.
      */
-    private int myLinesCleared;
+    private final Box myInfoLayout = new Box(BoxLayout.Y_AXIS);
     
     /**
-     * The timer delay between steps.
+     * The panel showing the game, whose snapshots hold the values to display.
      */
-    private BigDecimal myTimerDelay;
+    private final VisualBoard myBoardPanel;
     
     /**
-     * Timer delay decrease step.
+     * The scoring rule the info box describes.
      */
-    private final BigDecimal myTimerStep;
+    private ScoringRule myRule;
 
     /**
      * Constructs a new scoring panel.
@@ -118,10 +100,8 @@ public class ScorePanel extends JPanel implements Observer {
     public ScorePanel(final VisualBoard thePanel) {
         super(true);
         
-        thePanel.addObserver(this);
-        myTimerDelay = BigDecimal.valueOf((double) VisualBoard.DEFAULT_TIMING / TIME_SCALE);
-        myTimerDelay = myTimerDelay.setScale(2);
-        myTimerStep = BigDecimal.valueOf((double) VisualBoard.TIMING_STEP / TIME_SCALE);
+        myBoardPanel = thePanel;
+        thePanel.addGameListener(this);
         setupPanel();
         
     }
@@ -150,8 +130,8 @@ public class ScorePanel extends JPanel implements Observer {
         myScoreLabel.setFont(LABEL_FONT);
         myLinesLabel.setAlignmentX(CENTER_ALIGNMENT);
         myLinesLabel.setFont(LABEL_FONT);
-        myTimeDelayLabel.setAlignmentX(CENTER_ALIGNMENT);
-        myTimeDelayLabel.setFont(LABEL_FONT);
+        myGravityLabel.setAlignmentX(CENTER_ALIGNMENT);
+        myGravityLabel.setFont(LABEL_FONT);
         
         final Box scoreLayout = new Box(BoxLayout.Y_AXIS);
         scoreLayout.setOpaque(true);
@@ -162,7 +142,7 @@ public class ScorePanel extends JPanel implements Observer {
         scoreLayout.add(myScoreLabel);
         scoreLayout.add(Box.createVerticalStrut(VERT_SPACE));
         scoreLayout.add(myLinesLabel);
-        scoreLayout.add(myTimeDelayLabel);
+        scoreLayout.add(myGravityLabel);
         scoreLayout.add(Box.createVerticalStrut(VERT_SPACE));
         final JLabel optionsLabel = new JLabel("  For controls, see the Options menu  ");
         optionsLabel.setAlignmentX(CENTER_ALIGNMENT);
@@ -179,72 +159,105 @@ public class ScorePanel extends JPanel implements Observer {
      * Helper method to setup score info.
      */
     private void setupScoreInfo() {
-        final Box infoLayout = new Box(BoxLayout.Y_AXIS);
-        infoLayout.setOpaque(true);
-        infoLayout.setBackground(Color.WHITE);
-        infoLayout.setBorder(BorderFactory.createLoweredBevelBorder());
-        final JLabel line1 = new JLabel("50 points - Single Line Cleared");
-        line1.setAlignmentX(CENTER_ALIGNMENT);
-        line1.setFont(LABEL_FONT.deriveFont(Font.ITALIC, SMALL_FONT_SIZE));
-        final JLabel line2 = new JLabel("50 x N points - Each Additional Line");
-        line2.setAlignmentX(CENTER_ALIGNMENT);
-        line2.setFont(LABEL_FONT.deriveFont(Font.ITALIC, SMALL_FONT_SIZE));
-        final JLabel line3 = new JLabel("  Ex: 3 lines = 50 + 100 + 150 = 300 pts  ");
-        line3.setAlignmentX(CENTER_ALIGNMENT);
-        line3.setFont(LABEL_FONT.deriveFont(Font.ITALIC, SMALL_FONT_SIZE));
-        final JLabel line4 = new JLabel("500 x Lvl - Each Level Cleared");
-        line4.setAlignmentX(CENTER_ALIGNMENT);
-        line4.setFont(LABEL_FONT.deriveFont(Font.ITALIC, SMALL_FONT_SIZE));
-        final JLabel line5 = new JLabel("Level increases every 5 cleared lines");
-        line5.setAlignmentX(CENTER_ALIGNMENT);
-        line5.setFont(LABEL_FONT.deriveFont(Font.ITALIC, SMALL_FONT_SIZE));
-        infoLayout.add(line1);
-        infoLayout.add(Box.createVerticalStrut(SMALL_VERT_SPACE));
-        infoLayout.add(line2);
-        infoLayout.add(Box.createVerticalStrut(SMALL_VERT_SPACE));
-        infoLayout.add(line3);
-        infoLayout.add(Box.createVerticalStrut(SMALL_VERT_SPACE));
-        infoLayout.add(line4);
-        infoLayout.add(Box.createVerticalStrut(SMALL_VERT_SPACE));
-        infoLayout.add(line5);
-        infoLayout.setAlignmentX(CENTER_ALIGNMENT);
+        myInfoLayout.setOpaque(true);
+        myInfoLayout.setBackground(Color.WHITE);
+        myInfoLayout.setBorder(BorderFactory.createLoweredBevelBorder());
+        myInfoLayout.setAlignmentX(CENTER_ALIGNMENT);
+        describeRule(myBoardPanel.getScoringRule());
         
         final JLabel title = new JLabel("Scoring Info");
         title.setAlignmentX(CENTER_ALIGNMENT);
         title.setForeground(Color.WHITE);
         title.setFont(LABEL_FONT.deriveFont(Font.BOLD));
         this.add(title);
-        this.add(infoLayout);
+        this.add(myInfoLayout);
     }
     
     /**
-     * Updates the score data when the visual board panel notifies.
+     * Fills the info box with how a scoring rule scores.
      * 
-     * @param theObservable The object providing notification.
-     * @param theData The data being passed.
+     * @param theRule The scoring rule.
      */
-    @Override
-    public void update(final Observable theObservable, final Object theData) {
-        if ("linesCleared".equals(((String) theData).substring(1))) {
-            myLinesCleared++;
-            myScore += LINE_SCORE * Integer.parseInt(((String) theData).substring(0, 1));
-            
-        } else if ("delayShort".equals(theData)) {
-            myTimerDelay = myTimerDelay.subtract(myTimerStep);
-            myScore += LEVEL_BONUS * myLevel;
-            myLevel++;
-        } else if ("clear".equals(theData)) {
-            myLevel = 1;
-            myLinesCleared = 0;
-            myScore = 0;
-            myTimerDelay = BigDecimal.valueOf(
-                                            (double) VisualBoard.DEFAULT_TIMING / TIME_SCALE);
+    private void describeRule(final ScoringRule theRule) {
+        final String[] lines;
+        switch (theRule) {
+            case GUIDELINE:
+                lines = new String[] {"100 / 300 / 500 / 800 x Lvl - 1 to 4 Lines",
+                                      "  Back-to-back 4 lines: 1.5 x points  ",
+                                      "50 x Combo x Lvl - Clears in a Row",
+                                      "1 per row soft drop, 2 per row hard drop"};
+                break;
+            case CLASSIC:
+                lines = new String[] {"40 / 100 / 300 / 1200 x Lvl - 1 to 4 Lines",
+                                      "1 point per row of soft drop"};
+                break;
+            default:
+                lines = new String[] {"50 points - Single Line Cleared",
+                                      "50 x N points - Each Additional Line",
+                                      "  Ex: 3 lines = 50 + 100 + 150 = 300 pts  ",
+                                      "500 x Lvl - Each Level Cleared"};
+                break;
+        }
+        myRule = theRule;
+        myInfoLayout.removeAll();
+        for (final String text : lines) {
+            addInfoLine(text);
+            myInfoLayout.add(Box.createVerticalStrut(SMALL_VERT_SPACE));
         }
-        myLevelLabel.setText("Level " + myLevel);
-        myScoreLabel.setText("Score: " + myScore);
-        myLinesLabel.setText("Lines cleared: " + myLinesCleared);
-        myTimeDelayLabel.setText("Timer delay: " + myTimerDelay + " s");
+        addInfoLine("Level increases every " + theRule.getLinesPerLevel()
+                    + " cleared lines");
+        myInfoLayout.revalidate();
+        myInfoLayout.repaint();
     }
     
+    /**
+     * Adds a line of text to the info box.
+     * 
+     * @param theText The text.
+     */
+    private void addInfoLine(final String theText) {
+        final JLabel line = new JLabel(theText);
+        line.setAlignmentX(CENTER_ALIGNMENT);
+        line.setFont(LABEL_FONT.deriveFont(Font.ITALIC, SMALL_FONT_SIZE));
+        myInfoLayout.add(line);
+    }
+    
+    /**
+     * Displays the score data when the visual board panel reports an event. The
+     * values are kept by the board; the panel only shows them.
+     * 
+     * @param theEvent The kind of event.
+     * @param theValue The value carried by the event.
+     */
+    @Override
+    public void gameChanged(final GameEvent theEvent, final int theValue) {
+        switch (theEvent) {
+            case SCORE_CHANGED:
+                showScore(myBoardPanel.getSnapshot());
+                break;
+            case LEVEL_CHANGED:
+                showScore(myBoardPanel.getSnapshot());
+                myGravityLabel.setText(String.format("Gravity: %.3f G",
+                                                     theValue / GRAVITY_SCALE));
+                break;
+            case NEW_GAME:
+                if (myBoardPanel.getScoringRule() != myRule) {
+                    describeRule(myBoardPanel.getScoringRule());
+                }
+                break;
+            default:
+                break; // nothing to display
+        }
+    }
     
+    /**
+     * Shows the level, score and lines cleared of a snapshot of the game.
+     * 
+     * @param theSnapshot The snapshot.
+     */
+    private void showScore(final BoardSnapshot theSnapshot) {
+        myLevelLabel.setText("Level " + theSnapshot.getLevel());
+        myScoreLabel.setText("Score: " + theSnapshot.getScore());
+        myLinesLabel.setText("Lines cleared: " + theSnapshot.getLinesCleared());
+    }
 }
@@ -9,6 +9,8 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.KeyEvent;
@@ -16,13 +18,12 @@ import java.awt.event.WindowEvent;
 import java.awt.event.WindowStateListener;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 import model.Board;
 
@@ -33,7 +34,7 @@ import model.Board;
  * @version B
  */
 @SuppressWarnings("serial")
-public class TetrisGUI extends JFrame implements Observer {
+public class TetrisGUI extends JFrame implements GameListener {
     
 //    /**
 //     * Minimum size of the frame based on smallest available board size.
@@ -45,6 +46,12 @@ public class TetrisGUI extends JFrame implements Observer {
      */
     private static final int VERTICAL_SPACE = 100;
 
+    /**
+     * The time in milliseconds the window must stay one size before the board panel
+     * is resized to fit it.
+     */
+    private static final int RESIZE_DELAY = 100;
+
     /**
      * The game board.
      */
@@ -60,6 +67,11 @@ public class TetrisGUI extends JFrame implements Observer {
      */
     private final VisualBoard myBoardPanel;
     
+    /**
+     * The panel showing the upcoming pieces.
+     */
+    private final NextPiecePanel myPreviewPanel;
+    
     /**
      * The center container for the board panel.
      */
@@ -70,12 +82,14 @@ public class TetrisGUI extends JFrame implements Observer {
      */
     public TetrisGUI() {
         super("TCSS 305 Tetris - JBrewer");
-        final BoardSizeDialog dialog = new BoardSizeDialog();
+        final BoardSizeDialog dialog = new BoardSizeDialog(true);
         dialog.showSizeDialog();
         final Dimension boardSize = dialog.getResult();
-        myBoard = new Board(boardSize.width, boardSize.height);
+        myBoard = new Board(boardSize.width, boardSize.height,
+                            dialog.getGeneratorType().create(System.nanoTime()));
         myBoardPanel = new VisualBoard(myBoard, myControlMap);
-        myBoardPanel.addObserver(this);
+        myBoardPanel.addGameListener(this);
+        myPreviewPanel = new NextPiecePanel(myBoard, myBoardPanel.getSnapshot());
     }
     
     /**
@@ -85,7 +99,11 @@ public class TetrisGUI extends JFrame implements Observer {
         
         
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        this.setJMenuBar(new TetrisMenuBar(myBoardPanel, myControlMap, setupControls()));
+        final TetrisMenuBar menuBar = new TetrisMenuBar(myBoardPanel, myPreviewPanel,
+                                                        myControlMap,
+                                                        setupControls());
+        myBoardPanel.addGameListener(menuBar);
+        this.setJMenuBar(menuBar);
         
         setupSidebar();
         
@@ -133,12 +151,10 @@ public class TetrisGUI extends JFrame implements Observer {
         final JPanel sidebar = new JPanel(true);
         sidebar.setBackground(Color.LIGHT_GRAY);
         
-        final NextPiecePanel npPanel = new NextPiecePanel(myBoard);
-        
         final ScorePanel scoreDisplay = new ScorePanel(myBoardPanel);
         
         final Box layout = new Box(BoxLayout.PAGE_AXIS);
-        layout.add(npPanel);
+        layout.add(myPreviewPanel);
         layout.add(Box.createVerticalStrut(VERTICAL_SPACE));
         layout.add(scoreDisplay);
         //layout.add(Box.createVerticalStrut(VERTICAL_SPACE));
@@ -154,7 +170,8 @@ public class TetrisGUI extends JFrame implements Observer {
      * @return The array of control names.
      */
     private String[] setupControls() {
-        final String[] ctrl = {"left", "right", "down", "rotate", "drop", "pause", "grid"};
+        final String[] ctrl = {"left", "right", "down", "rotate", "drop", "pause", "grid",
+            "rotate ccw", "rotate 180"};
         int i = 2; //Index required because of magic number warnings from 3 and above
         
         myControlMap.put(ctrl[0], KeyEvent.VK_LEFT);
@@ -168,19 +185,23 @@ public class TetrisGUI extends JFrame implements Observer {
         myControlMap.put(ctrl[i], KeyEvent.VK_P);
         i++;
         myControlMap.put(ctrl[i], KeyEvent.VK_G);
+        i++;
+        myControlMap.put(ctrl[i], KeyEvent.VK_Z);
+        i++;
+        myControlMap.put(ctrl[i], KeyEvent.VK_A);
         
         return ctrl;
     }
     
     /**
-     * Packs the panel when the visual board notifies of a change in size.
+     * Packs the panel when the visual board reports a change in size.
      * 
-     * @param theObservable The object providing notification.
-     * @param theData The data being passed.
+     * @param theEvent The kind of event.
+     * @param theValue The value carried by the event.
      */
     @Override
-    public void update(final Observable theObservable, final Object theData) {
-        if ("gameSize".equals(theData)) {
+    public void gameChanged(final GameEvent theEvent, final int theValue) {
+        if (theEvent == GameEvent.GAME_SIZE) {
             myCenterLayout.setSize(getPreferredSize());
             this.setMinimumSize(this.getPreferredSize());
             myBoardPanel.changePanelSize(myCenterLayout.getSize());
@@ -190,11 +211,26 @@ public class TetrisGUI extends JFrame implements Observer {
     }
     
     /**
-     * The listener for receiving resize events.
+     * The listener for receiving resize events. Dragging the edge of the window sends
+     * a stream of them, so the board panel is only resized once the window has stayed
+     * the same size for a moment.
      *
      * @see ResizeEvent
      */
-    private class BoardResizeListener extends ComponentAdapter {
+    private class BoardResizeListener extends ComponentAdapter implements ActionListener {
+        
+        /**
+         * Waits for the resizing to settle.
+         */
+        private final Timer myTimer = new Timer(RESIZE_DELAY, this);
+        
+        /**
+         * Creates the listener.
+         */
+        BoardResizeListener() {
+            super();
+            myTimer.setRepeats(false);
+        }
         
         /**
          * Component resized.
@@ -203,7 +239,17 @@ public class TetrisGUI extends JFrame implements Observer {
          */
         @Override
         public void componentResized(final ComponentEvent theEvent) {
-            myBoardPanel.changePanelSize(theEvent.getComponent().getSize());
+            myTimer.restart();
+        }
+        
+        /**
+         * Resizes the board panel to the settled size of the center container.
+         *
+         * @param theEvent the timer event
+         */
+        @Override
+        public void actionPerformed(final ActionEvent theEvent) {
+            myBoardPanel.changePanelSize(myCenterLayout.getSize());
         }
     }
     
@@ -13,11 +13,10 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.ButtonGroup;
 import javax.swing.JButton;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JDialog;
@@ -26,9 +25,12 @@ import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
+import javax.swing.JRadioButtonMenuItem;
 import javax.swing.event.MenuEvent;
 import javax.swing.event.MenuListener;
 
+import model.ScoringRule;
+
 /**
  * The Class TetrisMenuBar.
  *
@@ -36,7 +38,7 @@ import javax.swing.event.MenuListener;
  * @version B
  */
 @SuppressWarnings("serial")
-public class TetrisMenuBar extends JMenuBar implements Observer {
+public class TetrisMenuBar extends JMenuBar implements GameListener {
     
     /**
      * A map that stores strings for corresponding key event codes. Used to name keys based on
@@ -57,6 +59,11 @@ public class TetrisMenuBar extends JMenuBar implements Observer {
      */
     private final VisualBoard myPanel;
     
+    /**
+     * The panel showing the upcoming pieces.
+     */
+    private final NextPiecePanel myPreviewPanel;
+    
     /**
      * A map that stores keyboard code values accessed by the name of the control.
      */
@@ -81,14 +88,16 @@ public class TetrisMenuBar extends JMenuBar implements Observer {
      * Constructs a menu bar for the Tetris game.
      *
      * @param thePanel The displayed panel.
+     * @param thePreviewPanel The panel showing the upcoming pieces.
      * @param theControlMap The map of controls
      * @param theControlNames The array of control names
      */
-    public TetrisMenuBar(final VisualBoard thePanel,
+    public TetrisMenuBar(final VisualBoard thePanel, final NextPiecePanel thePreviewPanel,
                          final Map<String, Integer> theControlMap,
                          final String[] theControlNames) {
         super();
         myPanel = thePanel;
+        myPreviewPanel = thePreviewPanel;
         myControlMap = theControlMap;
         myControlNames = theControlNames.clone();
         
@@ -205,6 +214,74 @@ public class TetrisMenuBar extends JMenuBar implements Observer {
         });
         optionsMenu.add(gridItem);
         
+        final JCheckBoxMenuItem ghostItem = new JCheckBoxMenuItem("Ghost Piece", true);
+        ghostItem.setMnemonic(KeyEvent.VK_H);
+        ghostItem.addActionListener(new ActionListener() {
+            /**
+             * Sets the boolean in the drawing panel when the check box is changed.
+             */
+            public void actionPerformed(final ActionEvent theEvent) {
+                myPanel.setGhostDraw(ghostItem.isSelected());
+            }
+        });
+        optionsMenu.add(ghostItem);
+
+        final JCheckBoxMenuItem activeItem =
+                        new JCheckBoxMenuItem("Active Rendering", myPanel.isActiveRendering());
+        activeItem.setMnemonic(KeyEvent.VK_A);
+        activeItem.addActionListener(new ActionListener() {
+            /**
+             * Switches the drawing panel between active and Swing rendering.
+             */
+            public void actionPerformed(final ActionEvent theEvent) {
+                myPanel.setActiveRendering(activeItem.isSelected());
+            }
+        });
+        optionsMenu.add(activeItem);
+        
+        final JMenu previewMenu = new JMenu("Preview");
+        previewMenu.setMnemonic(KeyEvent.VK_P);
+        final ButtonGroup previewGroup = new ButtonGroup();
+        for (int count = 1; count <= NextPiecePanel.MAX_PREVIEW; count++) {
+            final int pieces = count;
+            final JRadioButtonMenuItem previewItem = new JRadioButtonMenuItem(
+                            pieces + (pieces == 1 ? " Piece" : " Pieces"),
+                            pieces == myPreviewPanel.getPreviewCount());
+            previewItem.addActionListener(new ActionListener() {
+                /**
+                 * Shows the chosen number of upcoming pieces.
+                 */
+                public void actionPerformed(final ActionEvent theEvent) {
+                    myPreviewPanel.setPreviewCount(pieces);
+                }
+            });
+            previewGroup.add(previewItem);
+            previewMenu.add(previewItem);
+        }
+        optionsMenu.add(previewMenu);
+        
+        final JMenu scoringMenu = new JMenu("Scoring");
+        scoringMenu.setMnemonic(KeyEvent.VK_S);
+        scoringMenu.setToolTipText("Takes effect with the next game");
+        final ButtonGroup scoringGroup = new ButtonGroup();
+        for (final ScoringRule rule : ScoringRule.values()) {
+            final String name = rule.name();
+            final JRadioButtonMenuItem scoringItem = new JRadioButtonMenuItem(
+                            name.charAt(0) + name.substring(1).toLowerCase(),
+                            rule == myPanel.getScoringRule());
+            scoringItem.addActionListener(new ActionListener() {
+                /**
+                 * Scores the next game with the chosen rule.
+                 */
+                public void actionPerformed(final ActionEvent theEvent) {
+                    myPanel.setScoringRule(rule);
+                }
+            });
+            scoringGroup.add(scoringItem);
+            scoringMenu.add(scoringItem);
+        }
+        optionsMenu.add(scoringMenu);
+        
         final JMenuItem controlButton = new JMenuItem("Controls...");
         controlButton.addActionListener(new ActionListener() {
             /**
@@ -218,22 +295,40 @@ public class TetrisMenuBar extends JMenuBar implements Observer {
             
         });
         optionsMenu.add(controlButton);
+
+        final JMenuItem handlingButton = new JMenuItem("Handling...");
+        handlingButton.addActionListener(new ActionListener() {
+            /**
+             * Brings up the handling dialog and applies the chosen timing.
+             */
+            @Override
+            public void actionPerformed(final ActionEvent arg0) {
+                final HandlingDialog dialog = new HandlingDialog();
+                dialog.showHandlingDialog(myPanel.getDas(), myPanel.getArr(),
+                                          myPanel.getSoftDrop());
+                myPanel.setHandling(dialog.getDas(), dialog.getArr(), dialog.getSoftDrop());
+            }
+
+        });
+        optionsMenu.add(handlingButton);
         this.add(optionsMenu);
     }
     
     /**
      * Updates the menu bar from the visual board.
      * 
-     * @param theObservable The object notifying.
-     * @param theData Data being passed.
+     * @param theEvent The kind of event.
+     * @param theValue The value carried by the event.
      */
     @Override
-    public void update(final Observable theObservable, final Object theData) {
-        if ("newGame".equals(theData)) {
+    public void gameChanged(final GameEvent theEvent, final int theValue) {
+        if (theEvent == GameEvent.GAME_OVER) {
             myNewGame.setEnabled(true);
             myEndGame.setEnabled(false);
+        } else if (theEvent == GameEvent.NEW_GAME) {
+            myNewGame.setEnabled(false);
+            myEndGame.setEnabled(true);
         }
-        
     }
     
     /**
@@ -369,7 +464,7 @@ public class TetrisMenuBar extends JMenuBar implements Observer {
                 if (keyPressed == KeyEvent.VK_ESCAPE) {
                     SetKeyDialog.this.dispose();
                 } else if (!myControlMap.containsValue((Integer) theEvent.getKeyCode())) {
-                    myControlMap.put(myControlName, theEvent.getKeyCode());
+                    myPanel.setControl(myControlName, theEvent.getKeyCode());
                     JOptionPane.showMessageDialog(null, "Key set");
                     SetKeyDialog.this.dispose();
                 }
@@ -5,79 +5,84 @@
 
 package view;
 
-import java.awt.BasicStroke;
+import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
-import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.RenderingHints;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.awt.geom.Line2D;
-import java.awt.geom.Rectangle2D;
-import java.util.LinkedList;
-import java.util.List;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
-import javax.swing.Timer;
+import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
+import javax.swing.ToolTipManager;
 
-import model.AbstractPiece;
-import model.Block;
 import model.Board;
+import model.BoardEvent;
+import model.BoardSnapshot;
+import model.ScoringRule;
 
 /**
  * This class has the ability to graphically display a board, as well as control the board
- * through keyboard input and timers. Also provides scoring data.
+ * through keyboard input and a game loop. Also provides scoring data.
+ * 
+ * The board is played on the game loop thread. Its notifications are handed to the event
+ * dispatch thread along with a snapshot of the board, and the panel draws from the
+ * snapshot rather than from the board itself.
+ * 
+ * In active rendering mode the game loop draws each frame straight onto a canvas with
+ * a buffer strategy as soon as the board changes, instead of waiting for Swing to
+ * repaint. The Swing panel remains as the fallback and draws the same frames.
  *
  * @author James Brewer
  * @version B
  */
 @SuppressWarnings("serial")
-public class VisualBoard extends Observable implements Observer {
+public class VisualBoard implements Observer {
      
-    /**
-     * Default timing delay for activating the step method. 1000 ms = 1 s.
-     */
-    protected static final int DEFAULT_TIMING = 1000;
-    
-    /**
-     * Step in milliseconds in lowering the timer speed in difficulty change.
-     */
-    protected static final int TIMING_STEP = 50;
-    
     /**
      * The default side length of a block.
      */
     private static final int BLOCK_SIDE = 30;
 
     /**
-     * The thickness of the grid lines.
+     * The smallest side length of a block; a board that would need smaller blocks to
+     * fit is scrolled instead.
      */
-    private static final int GRID_LINE_WIDTH = 1;
-    
+    private static final int MIN_BLOCK_SIDE = 8;
+
     /**
-     * Number of lines needed to be cleared to increase difficulty one step.
+     * The largest size the panel asks for, so a huge board opens in a window that fits
+     * on the screen.
      */
-    private static final int LEVEL_UP_AT = 5;
-    
+    private static final Dimension MAX_PANEL_SIZE = new Dimension(1200, 900);
+
     /**
-     * Default font for the pause text.
+     * The number of rows scrolled by one notch of the mouse wheel.
      */
-    private static final Font DEFAULT_FONT = new Font("Arial", Font.BOLD, 44);
-    
+    private static final int SCROLL_ROWS = 3;
+
     /**
      * The current block size ratio, used as a double in order to handle resizing a slightly
      * more smooth. Initially set to the default value.
      */
     private double myBlockSide = BLOCK_SIDE;
     
+    /**
+     * The listeners for game events such as cleared lines and new games.
+     */
+    private final ListenerList myListeners = new ListenerList();
+    
     /**
      * The main panel for the class.
      */
@@ -99,19 +104,14 @@ public class VisualBoard extends Observable implements Observer {
     private int myBlocksTall;
     
     /**
-     * The coordinates of the current piece.
-     */
-    private int[][] myCurrentCoords;
-    
-    /**
-     * The list of blocks that have been frozen in place.
+     * The most recent snapshot of the board.
      */
-    private final List<Block[]> myFrozenData;
+    private BoardSnapshot mySnapshot;
     
     /**
-     * The game timer.
+     * The game loop, which plays the board and runs gravity.
      */
-    private final Timer myTimer = new Timer(DEFAULT_TIMING, new TimerListener());
+    private final GameLoop myLoop;
     
     /**
      * Sets whether the game is paused.
@@ -122,26 +122,60 @@ public class VisualBoard extends Observable implements Observer {
      * A map that stores keyboard code values accessed by the name of the control.
      */
     private final Map<String, Integer> myControlMap;
+    
+    /**
+     * The action bound to each key code, rebuilt whenever the controls change.
+     */
+    private final KeyBindings myBindings = new KeyBindings();
 
     /**
-     * Boolean that flags whether the grid is drawn or not.
+     * Whether the key of each repeating game command is held, by command code, so the
+     * key repeats made by the system are ignored.
      */
-    private boolean myGridDraw;
+    private final boolean[] myHeld = new boolean[GameCommand.count()];
 
     /**
-     * A flag for the game being over or not.
+     * Draws the frames for both the panel and the canvas.
      */
-    private boolean myGameOver;
+    private final BoardRenderer myRenderer = new BoardRenderer(BLOCK_SIDE, new Runnable() {
+        /**
+         * Draws the board again once the layers for its new size are ready.
+         */
+        @Override
+        public void run() {
+            repaintBoard();
+        }
+    });
+    
+    /**
+     * The canvas the game loop draws on in active rendering mode.
+     */
+    private final ActiveCanvas myCanvas;
+    
+    /**
+     * Whether the game loop draws the frames onto the canvas.
+     */
+    private volatile boolean myActive;
+    
+    /**
+     * The newest snapshot for the canvas; game loop thread only.
+     */
+    private BoardSnapshot myFrameSnapshot;
     
     /**
-     * Number of lines cleared during play.
+     * Whether the canvas needs a new frame; game loop thread only.
      */
-    private int myLinesCleared;
+    private boolean myFrameDirty;
+
+    /**
+     * A flag for the game being over or not.
+     */
+    private boolean myGameOver;
     
     /**
-     * Number of lines cleared at one time.
+     * The scoring rule of the next game.
      */
-    private int myLineClearCombo;
+    private ScoringRule myScoringRule = ScoringRule.ORIGINAL;
     
     /**
      * Constructs a new game panel, given a board.
@@ -150,28 +184,47 @@ public class VisualBoard extends Observable implements Observer {
      * @param theControlMap 
      */
     public VisualBoard(final Board theBoard, final Map<String, Integer> theControlMap) {
-        super();
-        
         myBoard = theBoard;
         myBlocksWide = myBoard.getWidth();
         myBlocksTall = myBoard.getHeight();
         myControlMap = theControlMap;
+        myBindings.rebuild(myControlMap);
         myBoard.addObserver(this);
-        myCurrentCoords = getCurrentCoords(myBoard);
-        myFrozenData = new LinkedList<Block[]>();
+        mySnapshot = myBoard.getSnapshot();
+        myFrameSnapshot = mySnapshot;
+        myLoop = new GameLoop(myBoard, gravityOf(mySnapshot));
+        myCanvas = new ActiveCanvas(myRenderer, new Runnable() {
+            /**
+             * Asks for a new frame when the system needs the canvas painted.
+             */
+            @Override
+            public void run() {
+                requestFrame();
+            }
+        });
+        myLoop.setFrameListener(new Runnable() {
+            /**
+             * Draws the canvas after each pass of the game loop if anything changed.
+             */
+            @Override
+            public void run() {
+                renderFrame();
+            }
+        });
         
         setupPanel();
+        setActiveRendering(true);
     }
     
     /**
      * Sets up the initial size of the panel and other details.
      */
     private void setupPanel() {
-        myTimer.start();
-        final Dimension startingDimension = new Dimension((int) myBlockSide
-                                                          * myBlocksWide + 1,
-                                                          (int) myBlockSide
-                                                          * myBlocksTall);
+        myLoop.start();
+        final Dimension startingDimension = limitSize((int) myBlockSide
+                                                      * myBlocksWide + 1,
+                                                      (int) myBlockSide
+                                                      * myBlocksTall);
         
         myPanel.setAlignmentY(JPanel.CENTER_ALIGNMENT);
         myPanel.setAlignmentX(JPanel.CENTER_ALIGNMENT);
@@ -179,6 +232,35 @@ public class VisualBoard extends Observable implements Observer {
         myPanel.setMaximumSize(startingDimension);
         
         myPanel.addKeyListener(new MyKeyListener());
+        myPanel.addMouseWheelListener(new MouseWheelListener() {
+            /**
+             * Scrolls a board that is larger than the panel.
+             * 
+             * @param theEvent The mouse wheel event.
+             */
+            @Override
+            public void mouseWheelMoved(final MouseWheelEvent theEvent) {
+                if (myRenderer.scroll(theEvent.getWheelRotation() * SCROLL_ROWS)) {
+                    repaintBoard();
+                }
+            }
+        });
+        myPanel.addFocusListener(new FocusAdapter() {
+            /**
+             * Releases the held keys, whose key up events will not arrive.
+             * 
+             * @param theEvent The focus event.
+             */
+            @Override
+            public void focusLost(final FocusEvent theEvent) {
+                for (int code = 0; code < myHeld.length; code++) {
+                    if (myHeld[code]) {
+                        myHeld[code] = false;
+                        myLoop.submit(GameCommand.forCode(code).getRelease().getCode());
+                    }
+                }
+            }
+        });
     }
     
     /**
@@ -190,6 +272,34 @@ public class VisualBoard extends Observable implements Observer {
         return myPanel;
     }
     
+    /**
+     * Returns the most recent snapshot of the board shown by the panel. Called only on
+     * the event dispatch thread.
+     * 
+     * @return The snapshot.
+     */
+    public BoardSnapshot getSnapshot() {
+        return mySnapshot;
+    }
+    
+    /**
+     * Adds a listener for game events.
+     * 
+     * @param theListener The listener to add.
+     */
+    public void addGameListener(final GameListener theListener) {
+        myListeners.add(theListener);
+    }
+    
+    /**
+     * Removes a listener for game events.
+     * 
+     * @param theListener The listener to remove.
+     */
+    public void removeGameListener(final GameListener theListener) {
+        myListeners.remove(theListener);
+    }
+    
     /**
      * Changes the key for one of the controls.
      * 
@@ -198,69 +308,128 @@ public class VisualBoard extends Observable implements Observer {
      */
     public void setControl(final String theControl, final int theKey) {
         myControlMap.put(theControl, theKey);
+        myBindings.rebuild(myControlMap);
     }
 
-    
     /**
-     * Draws a string in the center of the panel, with a given color.
-     * 
-     * @param theG2d The graphics controller
-     * @param theMessage The string to be displayed
-     * @param theColor The color of the words printed
+     * Changes how held movement keys repeat.
+     *
+     * @param theDas The delay in milliseconds before a held left or right key repeats.
+     * @param theArr The milliseconds between repeated moves, 0 to move to the wall.
+     * @param theSoftDrop The milliseconds between soft drop moves, 0 to drop to the floor.
      */
-    private void paintWord(final Graphics2D theG2d, final String theMessage,
-                           final Color theColor) {
-        theG2d.setColor(theColor);
-        theG2d.setFont(DEFAULT_FONT);
-        final Rectangle2D stringBounds = 
-                                       theG2d.getFontMetrics().getStringBounds(theMessage,
-                                                                               theG2d);
-        theG2d.drawString(theMessage, 
-                          (int) (myPanel.getWidth() / 2 - stringBounds.getWidth() / 2),
-                       (int) (myPanel.getHeight() / 2 - stringBounds.getHeight() / 2));
+    public void setHandling(final int theDas, final int theArr, final int theSoftDrop) {
+        myLoop.getAutoShift().setRates(theDas, theArr, theSoftDrop);
     }
-    
+
     /**
-     * Draws the blocks from the coordinate data.
-     * 
-     * @param theG2d The graphics controller
+     * Returns the delay before a held left or right key repeats.
+     *
+     * @return The delay in milliseconds.
      */
-    private void drawBlocks(final Graphics2D theG2d) {
-        
-        final int boardHeightIndex = myBlocksTall - 1;
-        Color frozenColor;
-        final Color currentColor =
-                             ((AbstractPiece) myBoard.getCurrentPiece()).getBlock().getColor();
-        final BasicStroke borderWidth = new BasicStroke(2);
-        final int blkSide = (int) myBlockSide;
-        
-        theG2d.setStroke(borderWidth);
-        
-        //Draw the current piece
-        for (int i = 0; i < myCurrentCoords.length; i++) {
-            theG2d.setColor(currentColor);
-            theG2d.fillRect(myCurrentCoords[i][0] * blkSide,
-                            myCurrentCoords[i][1] * blkSide, blkSide, blkSide);
-            theG2d.setColor(currentColor.darker());
-            theG2d.drawRect(myCurrentCoords[i][0] * blkSide + 1,
-                            myCurrentCoords[i][1] * blkSide + 1, blkSide - 1 , blkSide - 1);
+    public int getDas() {
+        return myLoop.getAutoShift().getDas();
+    }
+
+    /**
+     * Returns the time between repeated left or right moves.
+     *
+     * @return The time in milliseconds.
+     */
+    public int getArr() {
+        return myLoop.getAutoShift().getArr();
+    }
+
+    /**
+     * Returns the time between soft drop moves.
+     *
+     * @return The time in milliseconds.
+     */
+    public int getSoftDrop() {
+        return myLoop.getAutoShift().getSoftDrop();
+    }
+
+    /**
+     * Turns active rendering on or off. When it is off the Swing panel draws the game.
+     *
+     * @param theActive Whether the game loop draws the game onto a canvas.
+     */
+    public void setActiveRendering(final boolean theActive) {
+        if (theActive != myActive) {
+            if (theActive) {
+                //Menus must be heavyweight to show over the canvas
+                JPopupMenu.setDefaultLightWeightPopupEnabled(false);
+                ToolTipManager.sharedInstance().setLightWeightPopupEnabled(false);
+                myPanel.add(myCanvas, BorderLayout.CENTER);
+            } else {
+                myPanel.remove(myCanvas);
+            }
+            myActive = theActive;
+            myPanel.revalidate();
+            repaintBoard();
         }
-        
-        //Draw the frozen blocks
-        for (int j = 0; j < myFrozenData.size(); j++) {
-            for (int k = 0; k < myBoard.getWidth(); k++) {
-                frozenColor = myFrozenData.get(j)[k].getColor();
-                if (!frozenColor.equals(Color.BLACK)) {
-                    theG2d.setColor(frozenColor);
-                    theG2d.fillRect(k * blkSide, (boardHeightIndex - j) * blkSide
-                                    , blkSide, blkSide);
-                    theG2d.setColor(frozenColor.darker());
-                    theG2d.drawRect(k * blkSide + 1, (boardHeightIndex - j) * blkSide + 1,
-                                    blkSide - 1 , blkSide - 1);
-                }
-            }            
+    }
+
+    /**
+     * Returns whether the game loop draws the game onto a canvas.
+     *
+     * @return Whether active rendering is on.
+     */
+    public boolean isActiveRendering() {
+        return myActive;
+    }
+
+    /**
+     * Redraws the board, on the canvas or through Swing.
+     */
+    private void repaintBoard() {
+        if (myActive) {
+            requestFrame();
+        } else {
+            myPanel.repaint();
+        }
+    }
+
+    /**
+     * Asks the game loop to draw a new frame on the canvas, even while it is paused.
+     */
+    private void requestFrame() {
+        myLoop.invoke(new Runnable() {
+            /**
+             * Marks the canvas as needing a new frame.
+             */
+            @Override
+            public void run() {
+                myFrameDirty = true;
+            }
+        });
+    }
+
+    /**
+     * Draws a frame on the canvas if active rendering is on and anything changed.
+     * Called only on the game loop thread.
+     */
+    private void renderFrame() {
+        if (myActive && myFrameDirty) {
+            myRenderer.follow(myFrameSnapshot);
+            myFrameDirty = !myCanvas.render(myFrameSnapshot);
+        }
+    }
+
+    /**
+     * Shows the game over or pause message, or clears it.
+     */
+    private void updateMessage() {
+        if (myGameOver) {
+            myRenderer.setMessage("Game Over", Color.RED.darker());
+        } else if (myPause) {
+            myRenderer.setMessage("Paused", Color.GREEN.darker());
+        } else {
+            myRenderer.setMessage(null, null);
         }
+        repaintBoard();
     }
+
     
     /**
      * Sets whether to draw the grid.
@@ -268,48 +437,18 @@ public class VisualBoard extends Observable implements Observer {
      * @param theGrid A boolean set to determine the grid.
      */
     public void setGridDraw(final boolean theGrid) {
-        myGridDraw = theGrid;
-        myPanel.repaint(); //Repaints to display the grid
+        myRenderer.setGridDraw(theGrid);
+        repaintBoard(); //Repaints to display the grid
     }
     
     /**
-     * Draws a grid based on the panel's size.
+     * Sets whether to draw the ghost piece.
      *
-     * @param theG2d The graphics component.
-     */
-    private void drawGrid(final Graphics2D theG2d) {
-        final Dimension panelSize = myPanel.getSize();
-        final int height = (int) panelSize.getHeight();
-        final int width = (int) panelSize.getWidth();
-        final int roundedBlock = (int) myBlockSide;
-        theG2d.setStroke(new BasicStroke(GRID_LINE_WIDTH));
-        theG2d.setColor(Color.GRAY);
-        for (int y = 0; y <= height; y = y + roundedBlock) {
-            theG2d.draw(new Line2D.Double(0, y, width, y));
-        }
-        for (int x = 0; x <= width; x = x + roundedBlock) {
-            theG2d.draw(new Line2D.Double(x, 0, x, height));
-        }
-    }
-    
-    /**
-     * Gets the current coordinates of the active piece blocks and stores them.
-     * 
-     * @param theBoard The active board
-     * @return The coordinates.
-     */
-    private int[][] getCurrentCoords(final Board theBoard) {
-        final int[][] pieceCoord = 
-                            ((AbstractPiece) theBoard.getCurrentPiece()).getBoardCoordinates();
-        final int[][] outputCoord = pieceCoord.clone();
-        final int boardHeightIndex = theBoard.getHeight() - 1;
-        int i = 0;
-        
-        for (final int[] line: pieceCoord) {
-            outputCoord[i][1] = boardHeightIndex - line[1];
-            i++;
-        }
-        return outputCoord.clone();
+     * @param theGhost A boolean set to determine the ghost piece.
+     */
+    public void setGhostDraw(final boolean theGhost) {
+        myRenderer.setGhostDraw(theGhost);
+        repaintBoard();
     }
     
     /**
@@ -320,27 +459,55 @@ public class VisualBoard extends Observable implements Observer {
     public void pause(final boolean theSetPause) {
         if (theSetPause) {
             myPause = true;
-            myTimer.stop();
+            myLoop.stop();
+            Arrays.fill(myHeld, false); //The loop forgets held keys while stopped
         } else if (!theSetPause) {
             myPause = false;
-            myTimer.start();
+            myLoop.start();
         }
-        myPanel.repaint(); //Calls repaint to display the pause text, or remove it
+        updateMessage(); //Repaints to display the pause text, or remove it
     }
     
     /**
-     * Update the panel when the board notifies.
+     * Update the panel when the board notifies. The board notifies on the game loop
+     * thread, so the snapshot is taken here, kept for the next frame on the canvas, and
+     * the panel is updated on the event dispatch thread.
      * 
      * @param arg0 The object notifying.
      * @param arg1 Optional data being passed.
      */
     @Override
     public void update(final Observable arg0, final Object arg1) {
-        final int linesCleared = myFrozenData.size() - myBoard.getFrozenBlocks().size();
+        final BoardEvent event = (BoardEvent) arg1;
+        final BoardSnapshot snapshot = myBoard.getSnapshot();
+        myFrameSnapshot = snapshot;
+        myFrameDirty = true;
+        SwingUtilities.invokeLater(new Runnable() {
+            /**
+             * Updates the panel from the event.
+             */
+            @Override
+            public void run() {
+                boardChanged(event, snapshot);
+            }
+        });
+    }
+    
+    /**
+     * Updates the panel from a board event. Called on the event dispatch thread.
+     * 
+     * @param theEvent The event.
+     * @param theSnapshot The snapshot of the board taken with the event.
+     */
+    private void boardChanged(final BoardEvent theEvent, final BoardSnapshot theSnapshot) {
+        final BoardSnapshot previous = mySnapshot;
+        mySnapshot = theSnapshot;
         
-        if (myBoard.isGameOver()) {
-            myTimer.stop();
+        if (theEvent.isGameOver()) {
+            myLoop.stop();
             myGameOver = true;
+            myListeners.fire(GameEvent.GAME_OVER, 0);
+            updateMessage();
             final int choice = JOptionPane.showConfirmDialog(null, "The game has ended, would "
                                             + "you like to play again?", "GAME OVER",
                                             JOptionPane.YES_NO_OPTION);
@@ -348,70 +515,133 @@ public class VisualBoard extends Observable implements Observer {
                 newGame();
                 pause(false);
             }
-        } else if (linesCleared > 0) {
-            myLinesCleared += linesCleared;
-            myLineClearCombo++;
-            if ((myLinesCleared % LEVEL_UP_AT) == 0) {
-                modifyDifficulty();
+        }
+        
+        //The board keeps the score; the panel only passes changes on
+        if (theSnapshot.getLevel() != previous.getLevel()
+                || theSnapshot.getScoringRule() != previous.getScoringRule()) {
+            modifyDifficulty(theSnapshot);
+        }
+        if (theSnapshot.getScore() != previous.getScore()
+                || theSnapshot.getLinesCleared() != previous.getLinesCleared()) {
+            myListeners.fire(GameEvent.SCORE_CHANGED, 0);
+        }
+        
+        //The game loop has already drawn the change on the canvas
+        if (!myActive) {
+            if (myRenderer.follow(theSnapshot) || myRenderer.isScaled()) {
+                myPanel.repaint();
+            } else {
+                repaintChanges(previous, theSnapshot);
             }
-            setChanged();
-            notifyObservers(myLineClearCombo + "linesCleared");
-        } else {
-            myLineClearCombo = 0;
-            myCurrentCoords = getCurrentCoords(myBoard);
         }
-        myFrozenData.clear();
-        myFrozenData.addAll(myBoard.getFrozenBlocks());
-        myPanel.repaint();
     }
     
     /**
-     * Resizes panel proportionately.
+     * Repaints only the cells of the panel that differ between two snapshots.
+     * 
+     * @param thePrevious The snapshot drawn before.
+     * @param theSnapshot The snapshot to draw.
+     */
+    private void repaintChanges(final BoardSnapshot thePrevious,
+                                final BoardSnapshot theSnapshot) {
+        final int[] cells = theSnapshot.getChangedCells(thePrevious);
+        for (int i = 0; i < cells.length; i += BoardSnapshot.CELL_BOUNDS) {
+            myPanel.repaint(myRenderer.getPixelBounds(theSnapshot, cells, i));
+        }
+    }
+    
+    /**
+     * Resizes panel proportionately. If the blocks would be smaller than the smallest
+     * block size, the panel fills the parent and the board scrolls.
      *
      * @param theDimension The dimension of the parent component.
      */
     public void changePanelSize(final Dimension theDimension) {
         boolean changed = false;
-        if (theDimension.height / myBoard.getHeight()
-                                               > theDimension.width / myBoard.getWidth()) {
-            myBlockSide = theDimension.width / (double) myBoard.getWidth();
+        if (theDimension.height / myBlocksTall > theDimension.width / myBlocksWide) {
+            myBlockSide = theDimension.width / (double) myBlocksWide;
             changed = true;
-        } else if (theDimension.height / myBoard.getHeight()
-                                               < theDimension.width / myBoard.getWidth()) {
-            myBlockSide = theDimension.height / (double) myBoard.getHeight();
+        } else if (theDimension.height / myBlocksTall < theDimension.width / myBlocksWide) {
+            myBlockSide = theDimension.height / (double) myBlocksTall;
             changed = true;
-        } else if (theDimension.height / myBoard.getHeight()
-                                               == theDimension.width / myBoard.getWidth()) {
-            myBlockSide = theDimension.height / (double) myBoard.getHeight();
+        } else if (theDimension.height / myBlocksTall == theDimension.width / myBlocksWide) {
+            myBlockSide = theDimension.height / (double) myBlocksTall;
             changed = true;
         }
         if (changed) {
-            final Dimension newDimension = new Dimension((int) myBlockSide
-                                                          * myBoard.getWidth() + 1,
-                                                        (int) myBlockSide
-                                                        * myBoard.getHeight() + 1);
+            Dimension newDimension = new Dimension((int) myBlockSide
+                                                    * myBlocksWide + 1,
+                                                  (int) myBlockSide
+                                                  * myBlocksTall + 1);
+            if (myBlockSide < MIN_BLOCK_SIDE) {
+                myBlockSide = MIN_BLOCK_SIDE;
+                newDimension = new Dimension(Math.min(MIN_BLOCK_SIDE * myBlocksWide + 1,
+                                                      theDimension.width),
+                                             Math.min(MIN_BLOCK_SIDE * myBlocksTall + 1,
+                                                      theDimension.height));
+            }
             myPanel.setSize(newDimension);
             myPanel.setMaximumSize(newDimension);
+            myRenderer.setBlockSide((int) myBlockSide);
         }
-        myPanel.repaint();
+        repaintBoard();
     }
     
     /**
-     * Modifies the speed of the timer to change the difficulty.
+     * Sets the speed of gravity for the level and scoring rule of a game.
+     * 
+     * @param theSnapshot The snapshot of the game.
+     */
+    private void modifyDifficulty(final BoardSnapshot theSnapshot) {
+        myLoop.setGravity(gravityOf(theSnapshot));
+        myListeners.fire(GameEvent.LEVEL_CHANGED, myLoop.getGravity());
+    }
+    
+    /**
+     * Returns the speed of gravity of a game, from the gravity table of its scoring rule.
+     * 
+     * @param theSnapshot The snapshot of the game.
+     * @return The speed in GravityTable.CELL units per frame.
      */
-    private void modifyDifficulty() {
-        myTimer.setDelay(myTimer.getDelay() - TIMING_STEP);
-        setChanged();
-        notifyObservers("delayShort");
+    private static int gravityOf(final BoardSnapshot theSnapshot) {
+        return theSnapshot.getScoringRule().getGravityTable()
+                        .getGravity(theSnapshot.getLevel());
+    }
+    
+    /**
+     * @return The scoring rule of the next game.
+     */
+    public ScoringRule getScoringRule() {
+        return myScoringRule;
+    }
+    
+    /**
+     * Sets the scoring rule; it takes effect when the next game starts.
+     * 
+     * @param theRule The scoring rule.
+     */
+    public void setScoringRule(final ScoringRule theRule) {
+        myScoringRule = theRule;
+        myLoop.invoke(new Runnable() {
+            /**
+             * Sets the rule on the game loop thread.
+             */
+            @Override
+            public void run() {
+                myBoard.setScoringRule(theRule);
+            }
+        });
     }
     
     /**
      * Ends the current game if active.
      */
     public void endGame() {
-        myTimer.stop();
+        myLoop.stop();
         myGameOver = true;
-        myPanel.repaint();
+        myListeners.fire(GameEvent.GAME_OVER, 0);
+        updateMessage();
     }
     
     /**
@@ -428,29 +658,45 @@ public class VisualBoard extends Observable implements Observer {
      * @param theBlocksY Blocks tall
      */
     public void newGame(final int theBlocksX, final int theBlocksY) {
-        myBoard.newGame(theBlocksX, theBlocksY, null);
-        myCurrentCoords = getCurrentCoords(myBoard);
-        myLinesCleared = 0;
+        myLoop.invoke(new Runnable() {
+            /**
+             * Starts the new game on the game loop thread.
+             */
+            @Override
+            public void run() {
+                myBoard.newGame(theBlocksX, theBlocksY, null);
+            }
+        });
         myGameOver = false;
-        setChanged();
-        notifyObservers("clear");
+        myListeners.fire(GameEvent.NEW_GAME, 0);
         if (theBlocksX != myBlocksWide || theBlocksY != myBlocksTall) {
-            final Dimension newDimension = new Dimension((int) myBlockSide
-                                                              * theBlocksX + 1,
-                                                              (int) myBlockSide
-                                                              * theBlocksY);
+            final Dimension newDimension = limitSize((int) myBlockSide
+                                                         * theBlocksX + 1,
+                                                         (int) myBlockSide
+                                                         * theBlocksY);
             myPanel.setPreferredSize(newDimension);
             //myPanel.setMinimumSize(newDimension);
             myPanel.setMaximumSize(newDimension);
             myBlocksWide = theBlocksX;
             myBlocksTall = theBlocksY;
-            setChanged();
-            notifyObservers("gameSize");
+            myListeners.fire(GameEvent.GAME_SIZE, 0);
         }
-        myPanel.repaint();
+        updateMessage();
         
     }
     
+    /**
+     * Limits a size for the panel to the largest size it asks for.
+     * 
+     * @param theWidth The width the whole board needs.
+     * @param theHeight The height the whole board needs.
+     * @return The size to ask for.
+     */
+    private static Dimension limitSize(final int theWidth, final int theHeight) {
+        return new Dimension(Math.min(theWidth, MAX_PANEL_SIZE.width),
+                             Math.min(theHeight, MAX_PANEL_SIZE.height));
+    }
+    
     /**
      * A key listener made to affect the board as keys are pressed.
      *
@@ -458,11 +704,6 @@ public class VisualBoard extends Observable implements Observer {
      */
     private class MyKeyListener extends KeyAdapter {
         
-        /**
-         * Static string because pause is used twice.
-         */
-        private static final String PAUSE = "pause";
-        
          /**
           * Handles a key being pressed.
           * 
@@ -470,64 +711,61 @@ public class VisualBoard extends Observable implements Observer {
           */
         @Override
         public void keyPressed(final KeyEvent theEvent) {
-            final int keyCode = theEvent.getKeyCode();
+            final int action = myBindings.getAction(theEvent.getKeyCode());
             
-            if (keyCode == myControlMap.get("grid")) {
-                if (myGridDraw) {
+            if (action == KeyBindings.GRID) {
+                if (myRenderer.isGridDraw()) {
                     setGridDraw(false);
                 } else {
                     setGridDraw(true);
                 }
             }
             
-            if (keyCode == myControlMap.get(PAUSE) && myPause && !myGameOver) {
+            if (action == KeyBindings.PAUSE && myPause && !myGameOver) {
                 pause(false);
             } else if (!myPause && !myGameOver) {
-                firstKeyHelper(keyCode);
+                firstKeyHelper(action);
             }
         }
         
         /**
-         * Helps decide which action to take.
-         *
-         * @param theKeyCode the key code
+         * Handles a key being released, ending the repeat of a held game command.
+         * 
+         * @param theEvent The key released.
          */
-        private void firstKeyHelper(final int theKeyCode) {
-            if (theKeyCode == myControlMap.get("right")) {
-                myBoard.moveRight();
-            } else if (theKeyCode == myControlMap.get("left")) {
-                myBoard.moveLeft();
-            } else if (theKeyCode == myControlMap.get("down")) {
-                myBoard.moveDown();
-            } else if (theKeyCode == myControlMap.get("rotate")) {
-                myBoard.rotateCW();
-            } else if (theKeyCode == myControlMap.get("drop")) {
-                myBoard.hardDrop();
-            } else if (theKeyCode == myControlMap.get(PAUSE)) {
-                pause(true);
+        @Override
+        public void keyReleased(final KeyEvent theEvent) {
+            final int action = myBindings.getAction(theEvent.getKeyCode());
+            
+            if (action >= 0 && action < GameCommand.count() && myHeld[action]) {
+                myHeld[action] = false;
+                myLoop.submit(GameCommand.forCode(action).getRelease().getCode());
             }
         }
-    }
-    
-    /**
-     * The listener for receiving timer events.
-     */
-    private class TimerListener implements ActionListener {
-
+        
         /**
-         * Calls the step method as the timer activates.
-         * 
-         * @param theEvent The timer event
+         * Helps decide which action to take. Game commands are queued for the game loop
+         * as their command codes; a command that repeats while held is queued only when
+         * its key first goes down.
+         *
+         * @param theAction the action bound to the key
          */
-        @Override
-        public void actionPerformed(final ActionEvent theEvent) {
-            myBoard.step();
+        private void firstKeyHelper(final int theAction) {
+            if (theAction == KeyBindings.PAUSE) {
+                pause(true);
+            } else if (theAction >= 0 && theAction < GameCommand.count()) {
+                if (GameCommand.forCode(theAction).getRelease() == null) {
+                    myLoop.submit(theAction);
+                } else if (!myHeld[theAction]) {
+                    myHeld[theAction] = true;
+                    myLoop.submit(theAction);
+                }
+            }
         }
-        
     }
-
+    
     /**
-     * A panel for drawing the game board.
+     * A panel for drawing the game board. In active rendering mode the canvas covers it.
      */
     private final class GraphicsPanel extends JPanel {
         
@@ -535,30 +773,20 @@ public class VisualBoard extends Observable implements Observer {
          * Constructs a new panel with double buffering active.
          */
         protected GraphicsPanel() {
-            super(true);
+            super(new BorderLayout(), true);
         }
         
         /**
-         * Draws the game on the panel.
+         * Draws the game on the panel, unless the game loop draws it on the canvas.
          * 
          * @param theGraphics The graphics controller for displaying.
          */
         @Override
         public void paintComponent(final Graphics theGraphics) {
-            final Graphics2D g2d = (Graphics2D) theGraphics;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                                 RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.clearRect(0, 0, this.getWidth(), this.getHeight());
-            drawBlocks(g2d);
-            
-            if (myGridDraw) {
-                drawGrid(g2d); 
-            }
-            
-            if (myGameOver) {
-                paintWord(g2d, "Game Over", Color.RED.darker());
-            } else if (myPause) {
-                paintWord(g2d, "Paused", Color.GREEN.darker());
+            if (!myActive) {
+                final Graphics2D g2d = (Graphics2D) theGraphics;
+                g2d.setBackground(getBackground());
+                myRenderer.render(g2d, mySnapshot, this.getWidth(), this.getHeight());
             }
         }
     }
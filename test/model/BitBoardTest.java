@@ -0,0 +1,155 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the bitboard storage of frozen blocks.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class BitBoardTest {
+
+    /** A row mask of four blocks side by side, as an I piece lying flat. */
+    private static final int[] FLAT_FOUR = {0xF};
+
+    /** The width of the boards under test. */
+    private static final int WIDTH = 10;
+
+    /** The board under test. */
+    private BitBoard myBoard;
+
+    /**
+     * Creates an empty board before each test.
+     */
+    @Before
+    public void setUp() {
+        myBoard = new BitBoard(WIDTH);
+    }
+
+    /**
+     * Placing a piece fills its cells with its block and raises its columns.
+     */
+    @Test
+    public void testPlace() {
+        myBoard.place(FLAT_FOUR, 2, 0, Block.I);
+        assertEquals(1, myBoard.getRowCount());
+        for (int x = 0; x < WIDTH; x++) {
+            final boolean filled = x >= 2 && x < 6;
+            assertEquals("column " + x, filled, myBoard.isOccupied(x, 0));
+            assertEquals("column " + x, filled ? Block.I : Block.EMPTY,
+                         myBoard.getBlock(x, 0));
+            assertEquals("column " + x, filled ? 1 : 0, myBoard.getColumnHeight(x));
+        }
+        assertFalse(myBoard.isRowFull(0));
+    }
+
+    /**
+     * A piece hanging over the left wall keeps only its cells on the board.
+     */
+    @Test
+    public void testPlaceAtNegativeColumn() {
+        myBoard.place(FLAT_FOUR, -2, 0, Block.I);
+        assertTrue(myBoard.isOccupied(0, 0));
+        assertTrue(myBoard.isOccupied(1, 0));
+        assertFalse(myBoard.isOccupied(2, 0));
+    }
+
+    /**
+     * A piece that straddles two words of a wide row is stored in both.
+     */
+    @Test
+    public void testPlaceAcrossWords() {
+        final BitBoard wide = new BitBoard(100);
+        wide.place(FLAT_FOUR, 62, 0, Block.J);
+        for (int x = 60; x < 68; x++) {
+            assertEquals("column " + x, x >= 62 && x < 66, wide.isOccupied(x, 0));
+        }
+        assertTrue(wide.intersects(FLAT_FOUR, 65, 0));
+        assertFalse(wide.intersects(FLAT_FOUR, 66, 0));
+        assertFalse(wide.intersects(FLAT_FOUR, 58, 0));
+    }
+
+    /**
+     * A piece intersects the stack only where its cells overlap frozen blocks.
+     */
+    @Test
+    public void testIntersects() {
+        myBoard.place(FLAT_FOUR, 0, 0, Block.I);
+        assertTrue(myBoard.intersects(FLAT_FOUR, 3, 0));
+        assertFalse(myBoard.intersects(FLAT_FOUR, 4, 0));
+        assertFalse(myBoard.intersects(FLAT_FOUR, 0, 1));
+    }
+
+    /**
+     * Clearing a full row moves the rows above it down and lowers every column.
+     */
+    @Test
+    public void testClearRow() {
+        myBoard.place(FLAT_FOUR, 0, 0, Block.I);
+        myBoard.place(FLAT_FOUR, 4, 0, Block.I);
+        myBoard.place(new int[] {0x3}, 8, 0, Block.O);
+        myBoard.place(new int[] {0x1}, 5, 1, Block.T);
+        assertTrue(myBoard.isRowFull(0));
+        assertFalse(myBoard.isRowFull(1));
+
+        myBoard.removeRow(0);
+        assertEquals(1, myBoard.getRowCount());
+        assertEquals(Block.T, myBoard.getBlock(5, 0));
+        assertFalse(myBoard.isOccupied(4, 0));
+        for (int x = 0; x < WIDTH; x++) {
+            assertEquals("column " + x, x == 5 ? 1 : 0, myBoard.getColumnHeight(x));
+        }
+    }
+
+    /**
+     * The shared rows are handed out again until a row changes, and a shared row is
+     * copied rather than written when it changes.
+     */
+    @Test
+    public void testShareRows() {
+        myBoard.place(FLAT_FOUR, 0, 0, Block.I);
+        final byte[][] shared = myBoard.shareRows();
+        assertSame(shared, myBoard.shareRows());
+
+        final byte[] row = shared[0];
+        final byte before = row[6];
+        myBoard.place(new int[] {0x1}, 6, 0, Block.S);
+        final byte[][] again = myBoard.shareRows();
+        assertNotSame(shared, again);
+        assertNotSame(row, again[0]);
+        assertEquals(before, row[6]);
+        assertEquals(Block.S.ordinal(), again[0][6]);
+    }
+
+    /**
+     * Resetting empties the board.
+     */
+    @Test
+    public void testReset() {
+        myBoard.place(FLAT_FOUR, 0, 0, Block.I);
+        myBoard.reset(WIDTH);
+        assertEquals(0, myBoard.getRowCount());
+        assertEquals(0, myBoard.getColumnHeight(0));
+        assertFalse(myBoard.isOccupied(0, 0));
+    }
+
+    /**
+     * A board wider than the storage allows is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooWide() {
+        myBoard.reset(BitBoard.MAX_WIDTH + 1);
+    }
+}
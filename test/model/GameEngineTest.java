@@ -0,0 +1,264 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Observable;
+import java.util.Observer;
+
+import org.junit.Test;
+
+/**
+ * Tests of the game engine and of the board that wraps it.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class GameEngineTest {
+
+    /** The number of times each action is repeated to warm up before measuring. */
+    private static final int WARM_UP = 200000;
+
+    /** The number of times each action is repeated while measuring. */
+    private static final int MEASURED = 100000;
+
+    /** The number of actions between restarts while warming up. */
+    private static final int RESTART = 500;
+
+    /** The most bytes a whole measured run may allocate, for the measuring itself. */
+    private static final long ALLOCATION_SLACK = 1024;
+
+    /**
+     * The current piece is drawn once on boards wider than the bits of an int, where
+     * a shifted row mask would otherwise wrap to a second copy of the piece.
+     */
+    @Test
+    public void testWideBoardShowsOnePiece() {
+        for (final int width : new int[] {10, 33, 64, 100, GameEngine.MAX_WIDTH}) {
+            final GameEngine engine = new GameEngine(width, 22, 1L);
+            final String board = engine.toString();
+            int cells = 0;
+            for (int i = 0; i < board.length(); i++) {
+                if (board.charAt(i) == '*') {
+                    cells++;
+                }
+            }
+            assertEquals("width " + width, PieceKind.BLOCKS, cells);
+        }
+    }
+
+    /**
+     * The action that ends the game reports it, and no action after it reports it again.
+     */
+    @Test
+    public void testGameOverReportedOnce() {
+        final GameEngine engine = new GameEngine(10, GameEngine.MIN_SIZE, 1L);
+        int over = 0;
+        while (!engine.isGameOver()) {
+            if ((engine.hardDrop() & GameEngine.GAME_OVER) != 0) {
+                over++;
+            }
+        }
+        assertEquals(1, over);
+        assertEquals(GameEngine.NONE, engine.hardDrop());
+        assertEquals(GameEngine.NONE, engine.step());
+        assertEquals(GameEngine.NONE, engine.step(3));
+        assertEquals(GameEngine.NONE, engine.moveDown());
+        assertEquals(GameEngine.NONE, engine.moveLeft());
+        assertEquals(GameEngine.NONE, engine.rotateCW());
+    }
+
+    /**
+     * A soft drop stops on the stack without locking the piece and scores the rows it
+     * moved, however many were asked for.
+     */
+    @Test
+    public void testSoftDropDoesNotLock() {
+        final GameEngine engine = new GameEngine(10, 20, 1L);
+        engine.setScoringRule(ScoringRule.GUIDELINE);
+        engine.newGame(10, 20, null);
+        final int distance = engine.getDropDistance();
+        assertEquals(GameEngine.MOVED, engine.softDrop(distance + 5));
+        assertEquals(0, engine.getDropDistance());
+        assertEquals(distance, engine.getScore());
+        assertEquals(GameEngine.NONE, engine.softDrop(1));
+        assertEquals(0, engine.getPiecesLocked());
+        assertEquals(GameEngine.LOCKED | GameEngine.SPAWNED, engine.step());
+    }
+
+    /**
+     * The drop distance follows every change to the piece and the stack.
+     */
+    @Test
+    public void testDropDistanceFollowsChanges() {
+        final GameEngine engine = new GameEngine(10, 20, 1L);
+        final int distance = engine.getDropDistance();
+        engine.step();
+        assertEquals(distance - 1, engine.getDropDistance());
+        engine.step(3);
+        assertEquals(distance - 4, engine.getDropDistance());
+        engine.hardDrop();
+        final GameEngine fresh = new GameEngine(10, 20, 1L);
+        fresh.hardDrop();
+        fresh.getDropDistance();
+        assertEquals(fresh.toString(), engine.toString());
+        assertEquals(fresh.getDropDistance(), engine.getDropDistance());
+    }
+
+    /**
+     * Moving, rotating and stepping the current piece of an engine allocates nothing.
+     */
+    @Test
+    public void testEngineMovesAllocateNothing() {
+        final GameEngine engine = new GameEngine(10, GameEngine.MIN_SIZE * 200, 1L);
+        assertMovesAllocateNothing(new Runnable() {
+            /**
+             * Moves the piece about without locking it.
+             */
+            @Override
+            public void run() {
+                engine.moveLeft();
+                engine.moveRight();
+                engine.rotateCW();
+                engine.rotateCCW();
+                if (engine.getDropDistance() > 1) {
+                    engine.step();
+                }
+            }
+        }, new Runnable() {
+            /**
+             * Starts over with a new piece.
+             */
+            @Override
+            public void run() {
+                engine.newGame(engine.getWidth(), engine.getHeight(), null);
+            }
+        });
+    }
+
+    /**
+     * Moving, rotating and stepping the current piece of an observed board allocates
+     * nothing, including the notification of the observer.
+     */
+    @Test
+    public void testBoardMovesAllocateNothing() {
+        final Board board = new Board(10, GameEngine.MIN_SIZE * 200);
+        final int[] events = new int[1];
+        board.addObserver(new Observer() {
+            /**
+             * Counts the events.
+             */
+            @Override
+            public void update(final Observable theBoard, final Object theEvent) {
+                events[0]++;
+            }
+        });
+        assertMovesAllocateNothing(new Runnable() {
+            /**
+             * Moves the piece about without locking it.
+             */
+            @Override
+            public void run() {
+                board.moveLeft();
+                board.moveRight();
+                board.rotateCW();
+                board.rotateCCW();
+                if (board.getDropDistance() > 1) {
+                    board.step();
+                }
+            }
+        }, new Runnable() {
+            /**
+             * Starts over with a new piece.
+             */
+            @Override
+            public void run() {
+                board.newGame(board.getWidth(), board.getHeight(), null);
+            }
+        });
+        assertTrue(events[0] > 0);
+    }
+
+    /**
+     * Observers are notified the most recently added first, once each.
+     */
+    @Test
+    public void testObserverOrder() {
+        final Board board = new Board();
+        final StringBuilder order = new StringBuilder();
+        final Observer first = new NamedObserver("a", order);
+        final Observer second = new NamedObserver("b", order);
+        board.addObserver(first);
+        board.addObserver(second);
+        board.addObserver(first);
+        board.moveLeft();
+        assertEquals("ba", order.toString());
+        assertEquals(2, board.countObservers());
+
+        board.deleteObserver(second);
+        board.moveRight();
+        assertEquals("baa", order.toString());
+    }
+
+    /**
+     * Repeats an action and checks that it allocated nothing once warmed up.
+     *
+     * @param theAction the action to repeat
+     * @param theRestart starts a new game, so warming up sees fresh pieces
+     */
+    private static void assertMovesAllocateNothing(final Runnable theAction,
+                                                   final Runnable theRestart) {
+        final com.sun.management.ThreadMXBean threads =
+                        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARM_UP; i++) {
+            theAction.run();
+            if (i % RESTART == 0) {
+                theRestart.run();
+            }
+        }
+        theRestart.run();
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED; i++) {
+            theAction.run();
+        }
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue("allocated " + allocated + " bytes", allocated <= ALLOCATION_SLACK);
+    }
+
+    /**
+     * An observer that appends its name whenever it is notified.
+     */
+    private static final class NamedObserver implements Observer {
+
+        /** The name. */
+        private final String myName;
+
+        /** The record of notifications. */
+        private final StringBuilder myOrder;
+
+        /**
+         * Creates an observer.
+         *
+         * @param theName the name
+         * @param theOrder the record of notifications
+         */
+        NamedObserver(final String theName, final StringBuilder theOrder) {
+            myName = theName;
+            myOrder = theOrder;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void update(final Observable theBoard, final Object theEvent) {
+            myOrder.append(myName);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the gravity tables.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class GravityTableTest {
+
+    /**
+     * Speeds are held in fixed point, rounded to the nearest unit.
+     */
+    @Test
+    public void testFixedPoint() {
+        assertEquals(Math.round(0.016667 * GravityTable.CELL),
+                     GravityTable.GUIDELINE.getGravity(1));
+        assertEquals(Math.round(1.4570 * GravityTable.CELL),
+                     GravityTable.GUIDELINE.getGravity(14));
+        final GravityTable table = new GravityTable(new double[] {0.5, 1, 2.25});
+        assertEquals(GravityTable.CELL / 2, table.getGravity(1));
+        assertEquals(GravityTable.CELL, table.getGravity(2));
+        assertEquals(GravityTable.CELL * 9 / 4, table.getGravity(3));
+    }
+
+    /**
+     * A table built from frames per row moves one row in that many frames.
+     */
+    @Test
+    public void testFramesPerRow() {
+        assertEquals(Math.round(GravityTable.CELL / 60.0),
+                     GravityTable.ORIGINAL.getGravity(1));
+        assertEquals(Math.round(GravityTable.CELL / 48.0),
+                     GravityTable.CLASSIC.getGravity(1));
+        assertEquals(GravityTable.CELL, GravityTable.CLASSIC.getGravity(30));
+        assertEquals(GravityTable.CELL,
+                     GravityTable.fromFramesPerRow(new int[] {1}).getGravity(1));
+    }
+
+    /**
+     * The guideline curve reaches 20G, the fastest speed a table may hold.
+     */
+    @Test
+    public void testTwentyG() {
+        assertEquals(GravityTable.MAX_GRAVITY, GravityTable.GUIDELINE.getGravity(19));
+        assertEquals(20 * GravityTable.CELL, GravityTable.MAX_GRAVITY);
+        assertEquals(GravityTable.MAX_GRAVITY,
+                     new GravityTable(new double[] {20}).getGravity(1));
+    }
+
+    /**
+     * Levels past either end of a table take the speed of that end.
+     */
+    @Test
+    public void testLevelsOutsideTable() {
+        final GravityTable table = GravityTable.GUIDELINE;
+        assertEquals(table.getGravity(1), table.getGravity(0));
+        assertEquals(table.getGravity(table.getLevels()), table.getGravity(99));
+        assertEquals(19, table.getLevels());
+    }
+
+    /**
+     * Speeds only ever increase from level to level.
+     */
+    @Test
+    public void testCurvesIncrease() {
+        for (final ScoringRule rule : ScoringRule.values()) {
+            final GravityTable table = rule.getGravityTable();
+            for (int level = 2; level <= table.getLevels(); level++) {
+                assertTrue(rule + " level " + level,
+                           table.getGravity(level) >= table.getGravity(level - 1));
+            }
+        }
+        assertSame(GravityTable.GUIDELINE, ScoringRule.GUIDELINE.getGravityTable());
+    }
+
+    /**
+     * A speed above 20G is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAboveTwentyG() {
+        new GravityTable(new double[] {20.5});
+    }
+
+    /**
+     * A speed that rounds to nothing is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZero() {
+        new GravityTable(new double[] {0});
+    }
+
+    /**
+     * An empty table is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() {
+        new GravityTable(new double[0]);
+    }
+
+    /**
+     * A row cannot take less than one frame.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoFramesPerRow() {
+        GravityTable.fromFramesPerRow(new int[] {0});
+    }
+}
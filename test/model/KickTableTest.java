@@ -0,0 +1,146 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.junit.Test;
+
+/**
+ * Tests of the wall kick tables and of rotating pieces with them.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class KickTableTest {
+
+    /** A quarter turn clockwise. */
+    private static final int CW = 1;
+
+    /** A half turn. */
+    private static final int HALF = 2;
+
+    /** A quarter turn counterclockwise. */
+    private static final int CCW = 3;
+
+    /**
+     * The J, L, S, T and Z kicks of each clockwise turn are the published SRS offsets.
+     */
+    @Test
+    public void testStandardClockwise() {
+        assertArrayEquals(new int[] {0, 0, -1, 0, -1, 1, 0, -2, -1, -2},
+                          KickTable.STANDARD.kicks(0, CW));
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1, -1, 0, 2, 1, 2},
+                          KickTable.STANDARD.kicks(1, CW));
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1, 1, 0, -2, 1, -2},
+                          KickTable.STANDARD.kicks(2, CW));
+        assertArrayEquals(new int[] {0, 0, -1, 0, -1, -1, 0, 2, -1, 2},
+                          KickTable.STANDARD.kicks(3, CW));
+    }
+
+    /**
+     * The J, L, S, T and Z kicks of each counterclockwise turn are the published SRS
+     * offsets.
+     */
+    @Test
+    public void testStandardCounterclockwise() {
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1, 1, 0, -2, 1, -2},
+                          KickTable.STANDARD.kicks(0, CCW));
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1, -1, 0, 2, 1, 2},
+                          KickTable.STANDARD.kicks(1, CCW));
+        assertArrayEquals(new int[] {0, 0, -1, 0, -1, 1, 0, -2, -1, -2},
+                          KickTable.STANDARD.kicks(2, CCW));
+        assertArrayEquals(new int[] {0, 0, -1, 0, -1, -1, 0, 2, -1, 2},
+                          KickTable.STANDARD.kicks(3, CCW));
+    }
+
+    /**
+     * The I kicks of each quarter turn are the published SRS offsets.
+     */
+    @Test
+    public void testI() {
+        assertArrayEquals(new int[] {0, 0, -2, 0, 1, 0, -2, -1, 1, 2},
+                          KickTable.I.kicks(0, CW));
+        assertArrayEquals(new int[] {0, 0, -1, 0, 2, 0, -1, 2, 2, -1},
+                          KickTable.I.kicks(1, CW));
+        assertArrayEquals(new int[] {0, 0, -1, 0, 2, 0, -1, 2, 2, -1},
+                          KickTable.I.kicks(0, CCW));
+        assertArrayEquals(new int[] {0, 0, 2, 0, -1, 0, 2, 1, -1, -2},
+                          KickTable.I.kicks(1, CCW));
+    }
+
+    /**
+     * Each counterclockwise turn tests the offsets of the clockwise turn it reverses,
+     * negated and in the same order.
+     */
+    @Test
+    public void testCounterclockwiseNegatesClockwise() {
+        for (final KickTable table : KickTable.values()) {
+            for (int from = 0; from < KickTable.TURNS; from++) {
+                final int[] clockwise = table.kicks((from + CCW) % KickTable.TURNS, CW);
+                final int[] counter = table.kicks(from, CCW);
+                assertEquals(clockwise.length, counter.length);
+                for (int i = 0; i < counter.length; i++) {
+                    assertEquals(table + " from " + from, -clockwise[i], counter[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Half turns try rotating in place first, then the SRS+ offsets, which the I piece
+     * shares with the others.
+     */
+    @Test
+    public void testHalfTurn() {
+        assertArrayEquals(new int[] {0, 0, 0, 1, 1, 1, -1, 1, 1, 0, -1, 0},
+                          KickTable.STANDARD.kicks(0, HALF));
+        assertArrayEquals(new int[] {0, 0, 0, -1, -1, -1, 1, -1, -1, 0, 1, 0},
+                          KickTable.STANDARD.kicks(2, HALF));
+        for (int from = 0; from < KickTable.TURNS; from++) {
+            assertSame(KickTable.STANDARD.kicks(from, HALF), KickTable.I.kicks(from, HALF));
+            assertEquals(0, KickTable.STANDARD.kicks(from, HALF)[0]);
+            assertEquals(0, KickTable.STANDARD.kicks(from, HALF)[1]);
+        }
+    }
+
+    /**
+     * A kind without kicks only rotates in place.
+     */
+    @Test
+    public void testNone() {
+        for (int turns = CW; turns <= CCW; turns++) {
+            assertArrayEquals(new int[] {0, 0}, KickTable.NONE.kicks(0, turns));
+        }
+    }
+
+    /**
+     * A T piece against the left wall that cannot turn in place is kicked off the wall
+     * by the first offset that fits.
+     */
+    @Test
+    public void testKickOffWall() {
+        final Deque<Piece> pieces = new ArrayDeque<>();
+        pieces.add(new TPiece(3, 10));
+        final GameEngine engine = new GameEngine(10, 20, pieces);
+        engine.rotateCW();
+        while (engine.moveLeft() != GameEngine.NONE) {
+            // push the piece against the wall
+        }
+        final AbstractPiece piece = (AbstractPiece) engine.getCurrentPiece();
+        assertEquals(-1, piece.getX());
+
+        // turning back in place would put a block in column -1; the kick is (+1, 0)
+        assertEquals(GameEngine.MOVED, engine.rotateCCW());
+        assertEquals(0, piece.getRotationIndex());
+        assertEquals(0, piece.getX());
+        assertEquals(10, piece.getY());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the piece generators.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class PieceGeneratorTest {
+
+    /** The number of pieces drawn from a generator in each test. */
+    private static final int PIECES = 70000;
+
+    /** The number of piece types. */
+    private static final int TYPES = Block.values().length - 1;
+
+    /** The seed of every generator under test. */
+    private static final long SEED = 305L;
+
+    /** How far each type's share may stray from an even share, as a fraction of it. */
+    private static final double TOLERANCE = 0.05;
+
+    /** The longest a type may go missing from a 7-bag sequence. */
+    private static final int BAG_DROUGHT = 2 * TYPES - 2;
+
+    /**
+     * Every bag of seven pieces holds each type exactly once.
+     */
+    @Test
+    public void testBagDealsEachTypeOncePerBag() {
+        final PieceGenerator generator = new BagGenerator(SEED);
+        for (int bag = 0; bag < PIECES / TYPES; bag++) {
+            final int[] counts = new int[Block.values().length];
+            for (int i = 0; i < TYPES; i++) {
+                counts[generator.next().ordinal()]++;
+            }
+            assertEquals(0, counts[Block.EMPTY.ordinal()]);
+            for (int type = Block.EMPTY.ordinal() + 1; type < counts.length; type++) {
+                assertEquals("bag " + bag, 1, counts[type]);
+            }
+        }
+    }
+
+    /**
+     * No type goes missing from a 7-bag sequence for more than twelve pieces.
+     */
+    @Test
+    public void testBagDroughtBound() {
+        assertTrue(longestDrought(new BagGenerator(SEED)) <= BAG_DROUGHT);
+    }
+
+    /**
+     * The history generator deals every type about equally often.
+     */
+    @Test
+    public void testHistoryDistribution() {
+        assertEven(count(new HistoryGenerator(SEED)));
+    }
+
+    /**
+     * The history generator repeats the previous piece far less often than chance and
+     * lets no type go missing for as long as independent choices do.
+     */
+    @Test
+    public void testHistoryAvoidsRepeats() {
+        final PieceGenerator generator = new HistoryGenerator(SEED);
+        Block previous = generator.next();
+        int repeats = 0;
+        for (int i = 1; i < PIECES; i++) {
+            final Block block = generator.next();
+            if (block == previous) {
+                repeats++;
+            }
+            previous = block;
+        }
+        assertTrue("repeats " + repeats, repeats < PIECES / TYPES / 10);
+        assertTrue(longestDrought(new HistoryGenerator(SEED))
+                   < longestDrought(new UniformGenerator(SEED)));
+    }
+
+    /**
+     * The uniform generator deals every type about equally often.
+     */
+    @Test
+    public void testUniformDistribution() {
+        assertEven(count(new UniformGenerator(SEED)));
+    }
+
+    /**
+     * Generators with the same seed deal the same sequence, and peeking ahead shows
+     * the pieces next() goes on to return.
+     */
+    @Test
+    public void testSeedAndPeek() {
+        for (final GeneratorType type : GeneratorType.values()) {
+            final PieceGenerator generator = type.create(SEED);
+            final PieceGenerator again = type.create(SEED);
+            final Block[] ahead = new Block[generator.getLookahead()];
+            for (int i = 0; i < ahead.length; i++) {
+                ahead[i] = generator.peek(i);
+            }
+            for (int i = 0; i < ahead.length; i++) {
+                final Block block = generator.next();
+                assertEquals(type + " piece " + i, ahead[i], block);
+                assertEquals(type + " piece " + i, block, again.next());
+            }
+        }
+    }
+
+    /**
+     * Peeking past the lookahead is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPeekPastLookahead() {
+        final PieceGenerator generator = new BagGenerator(SEED);
+        generator.peek(generator.getLookahead());
+    }
+
+    /**
+     * Counts the types dealt by a generator.
+     *
+     * @param theGenerator the generator
+     * @return the number of pieces of each type, indexed by Block ordinal
+     */
+    private static int[] count(final PieceGenerator theGenerator) {
+        final int[] result = new int[Block.values().length];
+        for (int i = 0; i < PIECES; i++) {
+            result[theGenerator.next().ordinal()]++;
+        }
+        return result;
+    }
+
+    /**
+     * Checks that no type was dealt far more or less often than an even share.
+     *
+     * @param theCounts the number of pieces of each type, indexed by Block ordinal
+     */
+    private static void assertEven(final int[] theCounts) {
+        final double share = (double) PIECES / TYPES;
+        assertEquals(0, theCounts[Block.EMPTY.ordinal()]);
+        for (int type = Block.EMPTY.ordinal() + 1; type < theCounts.length; type++) {
+            assertEquals(Block.values()[type].toString(), share, theCounts[type],
+                         share * TOLERANCE);
+        }
+    }
+
+    /**
+     * Finds the most pieces dealt in a row without some type.
+     *
+     * @param theGenerator the generator
+     * @return the longest drought of any type
+     */
+    private static int longestDrought(final PieceGenerator theGenerator) {
+        final int[] lastSeen = new int[Block.values().length];
+        int result = 0;
+        for (int i = 1; i <= PIECES; i++) {
+            final int type = theGenerator.next().ordinal();
+            result = Math.max(result, i - lastSeen[type] - 1);
+            lastSeen[type] = i;
+        }
+        return result;
+    }
+}
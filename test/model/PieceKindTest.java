@@ -0,0 +1,159 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests of the piece kinds and their precomputed rotation tables.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class PieceKindTest {
+
+    /** The side of the box the I piece turns in. */
+    private static final int I_BOX = 4;
+
+    /** The side of the box the J, L, S, T and Z pieces turn in. */
+    private static final int BOX = 3;
+
+    /**
+     * Every block type but EMPTY has a kind made of it.
+     */
+    @Test
+    public void testForBlock() {
+        for (final Block block : Block.values()) {
+            if (block != Block.EMPTY) {
+                assertEquals(block, PieceKind.forBlock(block).getBlock());
+            }
+        }
+    }
+
+    /**
+     * EMPTY has no kind.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testForEmptyBlock() {
+        PieceKind.forBlock(Block.EMPTY);
+    }
+
+    /**
+     * Each rotation is the one before it turned a quarter clockwise within the box the
+     * kind turns in, as the Super Rotation System places them.
+     */
+    @Test
+    public void testRotationsAreQuarterTurns() {
+        for (final PieceKind kind : PieceKind.values()) {
+            if (kind.getRotationCount() > 1) {
+                assertEquals(kind.toString(), KickTable.TURNS, kind.getRotationCount());
+                final int box = kind == PieceKind.I ? I_BOX : BOX;
+                for (int rotation = 0; rotation < KickTable.TURNS; rotation++) {
+                    final Set<Integer> turned = new HashSet<>();
+                    for (int i = 0; i < PieceKind.BLOCKS; i++) {
+                        // (x, y) turns clockwise to (y, box - 1 - x) with y up
+                        turned.add(cell(kind.getCellY(rotation, i),
+                                        box - 1 - kind.getCellX(rotation, i)));
+                    }
+                    assertEquals(kind + " rotation " + rotation, turned,
+                                 cells(kind, kind.turn(rotation, 1)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Turning wraps around after the last rotation of a kind.
+     */
+    @Test
+    public void testTurn() {
+        assertEquals(0, PieceKind.T.turn(3, 1));
+        assertEquals(1, PieceKind.T.turn(3, 2));
+        assertEquals(3, PieceKind.T.turn(0, KickTable.TURNS - 1));
+        assertEquals(0, PieceKind.O.turn(0, 1));
+    }
+
+    /**
+     * The row masks, bounds and column bottoms agree with the block offsets.
+     */
+    @Test
+    public void testTablesMatchCells() {
+        for (final PieceKind kind : PieceKind.values()) {
+            for (int rotation = 0; rotation < kind.getRotationCount(); rotation++) {
+                final String name = kind + " rotation " + rotation;
+                final int[] masks = new int[PieceKind.ROWS];
+                final int[] bottoms = {PieceKind.NO_BLOCK, PieceKind.NO_BLOCK,
+                                       PieceKind.NO_BLOCK, PieceKind.NO_BLOCK};
+                int minX = PieceKind.ROWS;
+                int maxX = -1;
+                int minY = PieceKind.ROWS;
+                for (int i = 0; i < PieceKind.BLOCKS; i++) {
+                    final int x = kind.getCellX(rotation, i);
+                    final int y = kind.getCellY(rotation, i);
+                    masks[y] |= 1 << x;
+                    if (bottoms[x] == PieceKind.NO_BLOCK || y < bottoms[x]) {
+                        bottoms[x] = y;
+                    }
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                }
+                assertEquals(name, PieceKind.BLOCKS, cells(kind, rotation).size());
+                assertArrayEquals(name, masks, kind.rowMasks(rotation));
+                assertArrayEquals(name, bottoms, kind.bottoms(rotation));
+                assertEquals(name, minX, kind.minX(rotation));
+                assertEquals(name, maxX, kind.maxX(rotation));
+                assertEquals(name, minY, kind.minY(rotation));
+            }
+        }
+    }
+
+    /**
+     * Every piece of a kind shares the kind's tables rather than holding its own.
+     */
+    @Test
+    public void testTablesShared() {
+        final AbstractPiece first = new TPiece(0, 0);
+        final AbstractPiece second = new TPiece(3, 7);
+        assertSame(PieceKind.T, first.getKind());
+        assertSame(first.getKind(), second.getKind());
+        assertSame(PieceKind.T.rowMasks(1), PieceKind.T.rowMasks(1));
+        assertSame(PieceKind.T.kicks(0, 1), PieceKind.J.kicks(0, 1));
+    }
+
+    /**
+     * Collects the cells of a rotation.
+     *
+     * @param theKind the kind
+     * @param theRotation the rotation index
+     * @return the cells, each as encoded by cell()
+     */
+    private static Set<Integer> cells(final PieceKind theKind, final int theRotation) {
+        final Set<Integer> result = new HashSet<>();
+        for (int i = 0; i < PieceKind.BLOCKS; i++) {
+            result.add(cell(theKind.getCellX(theRotation, i),
+                            theKind.getCellY(theRotation, i)));
+        }
+        return result;
+    }
+
+    /**
+     * Encodes a cell of a bounding box as a single number.
+     *
+     * @param theX the column offset
+     * @param theY the row offset
+     * @return the cell
+     */
+    private static Integer cell(final int theX, final int theY) {
+        return theY * PieceKind.ROWS + theX;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * TCSS 305 - Project Tetris
+ */
+
+package model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests of the scoring rules and of the counters that follow them.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class ScoringRuleTest {
+
+    /**
+     * Each rule awards its published points for clearing one to four lines.
+     */
+    @Test
+    public void testLinePoints() {
+        assertLinePoints(ScoringRule.ORIGINAL, 0, 50, 150, 300, 500);
+        assertLinePoints(ScoringRule.GUIDELINE, 0, 100, 300, 500, 800);
+        assertLinePoints(ScoringRule.CLASSIC, 0, 40, 100, 300, 1200);
+    }
+
+    /**
+     * Each rule reaches a level every fixed number of lines, from level 1.
+     */
+    @Test
+    public void testLevels() {
+        assertEquals(1, ScoringRule.ORIGINAL.levelFor(4));
+        assertEquals(2, ScoringRule.ORIGINAL.levelFor(5));
+        assertEquals(1, ScoringRule.GUIDELINE.levelFor(9));
+        assertEquals(2, ScoringRule.GUIDELINE.levelFor(10));
+        assertEquals(4, ScoringRule.CLASSIC.levelFor(39));
+    }
+
+    /**
+     * Line points are multiplied by the level where the rule says so, and the original
+     * rule pays a bonus for each level reached instead.
+     */
+    @Test
+    public void testLevelMultiplier() {
+        final Scoring classic = new Scoring(ScoringRule.CLASSIC);
+        clear(classic, 10);
+        final long before = classic.getScore();
+        classic.lock(4);
+        assertEquals(2, classic.getLevel());
+        assertEquals(1200 * 2, classic.getScore() - before);
+
+        final Scoring original = new Scoring(ScoringRule.ORIGINAL);
+        original.lock(4);
+        original.lock(1);
+        // 500 for four lines, 50 for one, and 500 times level 1 for reaching level 2
+        assertEquals(500 + 50 + 500, original.getScore());
+        assertEquals(2, original.getLevel());
+    }
+
+    /**
+     * Each level reached pays its bonus once, times the level being left.
+     */
+    @Test
+    public void testLevelBonuses() {
+        final Scoring original = new Scoring(ScoringRule.ORIGINAL);
+        original.lock(4);
+        original.lock(4);
+        original.lock(4);
+        // 12 lines reach level 3: bonuses of 500 times levels 1 and 2
+        assertEquals(3, original.getLevel());
+        assertEquals(12, original.getLines());
+        assertEquals(3 * 500 + 500 + 1000, original.getScore());
+    }
+
+    /**
+     * Under the guideline, back-to-back fours earn half as much again and clears in a
+     * row earn a combo bonus; a lock that clears nothing ends the combo.
+     */
+    @Test
+    public void testGuidelineBonuses() {
+        final Scoring scoring = new Scoring(ScoringRule.GUIDELINE);
+        scoring.lock(4);
+        assertEquals(800, scoring.getScore());
+        scoring.lock(4);
+        // 800 and half again for back-to-back, and a combo of 1 at 50
+        assertEquals(800 + 1200 + 50, scoring.getScore());
+        scoring.lock(0);
+        scoring.lock(1);
+        assertEquals(800 + 1200 + 50 + 100, scoring.getScore());
+    }
+
+    /**
+     * Drops earn the rule's points for each row.
+     */
+    @Test
+    public void testDrops() {
+        final Scoring guideline = new Scoring(ScoringRule.GUIDELINE);
+        guideline.softDrop(3);
+        guideline.hardDrop(5);
+        assertEquals(3 + 2 * 5, guideline.getScore());
+
+        final Scoring original = new Scoring(ScoringRule.ORIGINAL);
+        original.softDrop(3);
+        original.hardDrop(5);
+        assertEquals(0, original.getScore());
+    }
+
+    /**
+     * Resetting starts a new game under the given rule.
+     */
+    @Test
+    public void testReset() {
+        final Scoring scoring = new Scoring(ScoringRule.GUIDELINE);
+        scoring.lock(4);
+        scoring.reset(ScoringRule.CLASSIC);
+        assertEquals(ScoringRule.CLASSIC, scoring.getRule());
+        assertEquals(0, scoring.getScore());
+        assertEquals(1, scoring.getLevel());
+        assertEquals(0, scoring.getLines());
+    }
+
+    /**
+     * Checks the points a rule awards for each number of lines at level 1.
+     *
+     * @param theRule the rule
+     * @param thePoints the points for clearing 0 to 4 lines
+     */
+    private static void assertLinePoints(final ScoringRule theRule,
+                                         final int... thePoints) {
+        for (int lines = 0; lines < thePoints.length; lines++) {
+            assertEquals(theRule + " " + lines, thePoints[lines],
+                         theRule.getLinePoints(lines));
+            final Scoring scoring = new Scoring(theRule);
+            scoring.lock(lines);
+            assertEquals(theRule + " " + lines, thePoints[lines], scoring.getScore());
+        }
+    }
+
+    /**
+     * Clears lines one at a time.
+     *
+     * @param theScoring the counters
+     * @param theLines the number of lines to clear
+     */
+    private static void clear(final Scoring theScoring, final int theLines) {
+        for (int i = 0; i < theLines; i++) {
+            theScoring.lock(1);
+            theScoring.lock(0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+/**
+ * Tests of the lock-free queue of command codes.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class CommandQueueTest {
+
+    /** The capacity of the queues under test. */
+    private static final int CAPACITY = 8;
+
+    /** The number of producer threads. */
+    private static final int PRODUCERS = 4;
+
+    /** The number of commands each producer queues. */
+    private static final int COMMANDS = 100000;
+
+    /**
+     * Commands come out in the order they went in.
+     */
+    @Test
+    public void testOrder() {
+        final CommandQueue queue = new CommandQueue(CAPACITY);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < CAPACITY / 2; i++) {
+                assertTrue(queue.offer(round * CAPACITY + i));
+            }
+            for (int i = 0; i < CAPACITY / 2; i++) {
+                assertEquals(round * CAPACITY + i, queue.poll());
+            }
+        }
+        assertEquals(CommandQueue.EMPTY, queue.poll());
+    }
+
+    /**
+     * A full queue refuses commands until one is taken out.
+     */
+    @Test
+    public void testFull() {
+        final CommandQueue queue = new CommandQueue(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(CAPACITY));
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(CAPACITY));
+
+        queue.clear();
+        assertEquals(CommandQueue.EMPTY, queue.poll());
+    }
+
+    /**
+     * A capacity that is not a power of two is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacity() {
+        new CommandQueue(CAPACITY - 1);
+    }
+
+    /**
+     * With several producers at once, no command is lost or repeated and the commands
+     * of each producer come out in the order it queued them.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testProducersKeepOrder() throws InterruptedException {
+        final CommandQueue queue = new CommandQueue(CAPACITY);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            producers[p] = new Thread(new Runnable() {
+                /**
+                 * Queues this producer's commands, retrying while the queue is full.
+                 */
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 0; i < COMMANDS; i++) {
+                        while (!queue.offer(i * PRODUCERS + producer)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            producers[p].start();
+        }
+        start.countDown();
+
+        final int[] next = new int[PRODUCERS];
+        for (int received = 0; received < PRODUCERS * COMMANDS; received++) {
+            int code = queue.poll();
+            while (code == CommandQueue.EMPTY) {
+                Thread.yield();
+                code = queue.poll();
+            }
+            final int producer = code % PRODUCERS;
+            assertEquals("producer " + producer, next[producer], code / PRODUCERS);
+            next[producer]++;
+        }
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(CommandQueue.EMPTY, queue.poll());
+    }
+}
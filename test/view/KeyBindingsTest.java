@@ -0,0 +1,86 @@
+/*
+ * TCSS 305 - Autumn 2014
+ * Assignment 6 Tetris
+ */
+
+package view;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.event.KeyEvent;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the table from key codes to actions.
+ *
+ * @author James Brewer
+ * @version B
+ */
+public class KeyBindingsTest {
+
+    /** An extended key code of a non-Latin layout, beyond the table. */
+    private static final int EXTENDED = 0x01000439;
+
+    /** The bindings under test. */
+    private KeyBindings myBindings;
+
+    /** The key code of each control. */
+    private Map<String, Integer> myControls;
+
+    /**
+     * Binds the arrows, pause and grid before each test.
+     */
+    @Before
+    public void setUp() {
+        myBindings = new KeyBindings();
+        myControls = new HashMap<>();
+        myControls.put("left", KeyEvent.VK_LEFT);
+        myControls.put("right", KeyEvent.VK_RIGHT);
+        myControls.put(KeyBindings.PAUSE_CONTROL, KeyEvent.VK_P);
+        myControls.put(KeyBindings.GRID_CONTROL, EXTENDED);
+        myBindings.rebuild(myControls);
+    }
+
+    /**
+     * Each bound key resolves to its control's action, in the table or beyond it.
+     */
+    @Test
+    public void testBound() {
+        assertEquals(GameCommand.LEFT.getCode(), myBindings.getAction(KeyEvent.VK_LEFT));
+        assertEquals(GameCommand.RIGHT.getCode(), myBindings.getAction(KeyEvent.VK_RIGHT));
+        assertEquals(KeyBindings.PAUSE, myBindings.getAction(KeyEvent.VK_P));
+        assertEquals(KeyBindings.GRID, myBindings.getAction(EXTENDED));
+    }
+
+    /**
+     * Keys that are not bound have no action, whatever their code.
+     */
+    @Test
+    public void testUnbound() {
+        assertEquals(KeyBindings.NONE, myBindings.getAction(KeyEvent.VK_Q));
+        assertEquals(KeyBindings.NONE, myBindings.getAction(EXTENDED + 1));
+        assertEquals(KeyBindings.NONE, myBindings.getAction(-1));
+    }
+
+    /**
+     * Rebinding a control frees the key it was bound to before.
+     */
+    @Test
+    public void testRebind() {
+        myControls.put("left", KeyEvent.VK_A);
+        myControls.put(KeyBindings.GRID_CONTROL, KeyEvent.VK_G);
+        myControls.remove(KeyBindings.PAUSE_CONTROL);
+        myBindings.rebuild(myControls);
+
+        assertEquals(GameCommand.LEFT.getCode(), myBindings.getAction(KeyEvent.VK_A));
+        assertEquals(KeyBindings.GRID, myBindings.getAction(KeyEvent.VK_G));
+        assertEquals(KeyBindings.NONE, myBindings.getAction(KeyEvent.VK_LEFT));
+        assertEquals(KeyBindings.NONE, myBindings.getAction(KeyEvent.VK_P));
+        assertEquals(KeyBindings.NONE, myBindings.getAction(EXTENDED));
+        assertEquals(GameCommand.RIGHT.getCode(), myBindings.getAction(KeyEvent.VK_RIGHT));
+    }
+}